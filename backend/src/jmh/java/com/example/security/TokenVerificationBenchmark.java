@@ -0,0 +1,80 @@
+package com.example.security;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.service.UserPrincipal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request cost of turning a bearer token into a principal, with the verified-token
+ * cache on and off. Requests rotate over a pool of distinct tokens, as they would across
+ * many signed-in users.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean cacheEnabled;
+
+	@Param({ "1000" })
+	public int tokenCount;
+
+	private JwtUtils jwtUtils;
+	private String[] tokens;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		VerifiedTokenCache cache = new VerifiedTokenCache();
+		ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+		ReflectionTestUtils.setField(cache, "maxSize", tokenCount);
+		cache.registerMetrics();
+
+		byte[] secret = new byte[64];
+		new SecureRandom().nextBytes(secret);
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCache", cache);
+
+		tokens = new String[tokenCount];
+		for (int i = 0; i < tokenCount; i++) {
+			UserPrincipal principal = new UserPrincipal("user-" + i, "user" + i, "user" + i + "@example.com", null,
+					List.of(new SimpleGrantedAuthority("ROLE_USER")));
+			tokens[i] = jwtUtils.generateJwtToken(
+					new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+		}
+	}
+
+	@Benchmark
+	public UserPrincipal authenticate() {
+		String token = tokens[next];
+		next = (next + 1) % tokens.length;
+		return jwtUtils.getPrincipalFromClaims(jwtUtils.parseValidClaims(token));
+	}
+}
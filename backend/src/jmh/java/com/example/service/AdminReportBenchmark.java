@@ -0,0 +1,192 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.model.ProfileStats;
+import com.example.model.Skill;
+import com.example.model.SkillLevel;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import com.example.repository.UserRepositoryCustomImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Admin activity and feedback reports before and after the $facet rewrite, against a
+ * real MongoDB. The legacy variants are the previous implementation: findAll, then count,
+ * average and sort in the JVM. The aggregated variants call AdminService as it is now.
+ *
+ * Needs a MongoDB server; -Dbench.mongodb.uri picks it (default mongodb://localhost:27017).
+ * The users collection of the skillswap_bench database is reseeded whenever its size
+ * doesn't match userCount, with the indexes declared on User.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx8g" })
+public class AdminReportBenchmark {
+
+	private static final String DATABASE = "skillswap_bench";
+	private static final int SEED_BATCH = 5000;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int userCount;
+
+	private MongoClient client;
+	private UserRepository userRepository;
+	private AdminService adminService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		client = MongoClients.create(System.getProperty("bench.mongodb.uri", "mongodb://localhost:27017"));
+		MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+		seed(mongoTemplate);
+
+		UserRepositoryCustomImpl custom = new UserRepositoryCustomImpl();
+		ReflectionTestUtils.setField(custom, "mongoTemplate", mongoTemplate);
+		userRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(UserRepository.class, custom);
+		adminService = new AdminService();
+		ReflectionTestUtils.setField(adminService, "userRepository", userRepository);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		client.close();
+	}
+
+	@Benchmark
+	public Map<String, Object> activityReportLegacy() {
+		List<User> allUsers = userRepository.findAll();
+		long totalUsers = allUsers.size();
+		long activeUsers = allUsers.stream().filter(user -> user.isActive() && !user.isBanned()).count();
+		long bannedUsers = allUsers.stream().filter(User::isBanned).count();
+
+		Map<String, Object> report = new HashMap<>();
+		report.put("userStats", Map.of(
+				"totalUsers", totalUsers,
+				"activeUsers", activeUsers,
+				"bannedUsers", bannedUsers,
+				"inactiveUsers", totalUsers - activeUsers - bannedUsers));
+		report.put("recentUsers", allUsers.stream()
+				.sorted((u1, u2) -> Integer.compare(u2.getStats().getProfileViews(), u1.getStats().getProfileViews()))
+				.limit(10)
+				.toList());
+		return report;
+	}
+
+	@Benchmark
+	public Map<String, Object> activityReportAggregated() {
+		return adminService.generateUserActivityReport();
+	}
+
+	@Benchmark
+	public Map<String, Object> feedbackReportLegacy() {
+		List<User> allUsers = userRepository.findAll();
+		double averageRating = allUsers.stream()
+				.mapToDouble(user -> user.getStats() != null ? user.getStats().getAverageRating() : 0.0)
+				.average()
+				.orElse(0.0);
+		long totalRatings = allUsers.stream()
+				.mapToLong(user -> user.getStats() != null ? user.getStats().getTotalRatings() : 0)
+				.sum();
+
+		Map<String, Object> report = new HashMap<>();
+		report.put("feedbackStats", Map.of(
+				"averageRating", averageRating,
+				"totalRatings", totalRatings,
+				"usersWithRatings", allUsers.stream()
+						.filter(user -> user.getStats() != null && user.getStats().getTotalRatings() > 0)
+						.count()));
+		report.put("topRatedUsers", allUsers.stream()
+				.filter(user -> user.getStats() != null && user.getStats().getAverageRating() > 0)
+				.sorted((u1, u2) -> Double.compare(u2.getStats().getAverageRating(), u1.getStats().getAverageRating()))
+				.limit(10)
+				.toList());
+		return report;
+	}
+
+	@Benchmark
+	public Map<String, Object> feedbackReportAggregated() {
+		return adminService.generateFeedbackReport();
+	}
+
+	private void seed(MongoTemplate mongoTemplate) {
+		if (mongoTemplate.count(new Query(), User.class) == userCount) {
+			return;
+		}
+		mongoTemplate.dropCollection(User.class);
+		IndexOperations indexOps = mongoTemplate.indexOps(User.class);
+		IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+				(MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+		resolver.resolveIndexFor(User.class).forEach(indexOps::ensureIndex);
+
+		Random random = new Random(42);
+		List<User> batch = new ArrayList<>(SEED_BATCH);
+		for (int i = 0; i < userCount; i++) {
+			batch.add(user(i, random));
+			if (batch.size() == SEED_BATCH) {
+				mongoTemplate.insert(batch, User.class);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			mongoTemplate.insert(batch, User.class);
+		}
+	}
+
+	// Shaped like a real profile, so findAll pays for the fields a report doesn't need
+	private static User user(int i, Random random) {
+		User user = new User();
+		user.setName("Bench User " + i);
+		user.setUsername("bench_" + i);
+		user.setEmail("bench_" + i + "@example.com");
+		user.setPassword("$2a$10$" + "x".repeat(53));
+		user.setLocation("City " + random.nextInt(500));
+		user.setTagline("Happy to trade skills " + i);
+		user.setPublic(random.nextInt(10) > 0);
+		user.setActive(random.nextInt(20) > 0);
+		user.setBanned(random.nextInt(100) == 0);
+		user.setOfferedSkills(new ArrayList<>(List.of(
+				new Skill("skill " + random.nextInt(2000), SkillLevel.INTERMEDIATE),
+				new Skill("skill " + random.nextInt(2000), SkillLevel.EXPERT))));
+		user.setWantedSkills(new ArrayList<>(List.of("skill " + random.nextInt(2000), "skill " + random.nextInt(2000))));
+		ProfileStats stats = new ProfileStats();
+		stats.setProfileViews(random.nextInt(5000));
+		int ratings = random.nextInt(3) == 0 ? 0 : random.nextInt(50);
+		stats.setTotalRatings(ratings);
+		stats.setAverageRating(ratings == 0 ? 0.0 : 1 + random.nextDouble() * 4);
+		stats.setTotalSwaps(random.nextInt(40));
+		stats.setCompletedSwaps(random.nextInt(20));
+		user.setStats(stats);
+		return user;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dto.SwapCycleDto;
+import com.example.model.Skill;
+import com.example.model.SkillLevel;
+import com.example.model.User;
+
+/**
+ * Building the skill graph (the SkillIndex) and searching it for swap rings, on a
+ * synthetic population with a skewed skill popularity so a few skills are very common.
+ * The finder runs with the limits from application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class SwapCycleFinderBenchmark {
+
+	private static final int SKILLS_PER_USER = 3;
+	private static final int ROOTS = 1000;
+
+	@Param({ "100000" })
+	public int userCount;
+
+	@Param({ "2000" })
+	public int skillCount;
+
+	private List<User> users;
+	private SkillIndex skillIndex;
+	private SwapCycleFinder finder;
+	private String[] roots;
+	private int nextRoot;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		users = new ArrayList<>(userCount);
+		Map<String, User> byId = new HashMap<>();
+		for (int i = 0; i < userCount; i++) {
+			User user = new User();
+			user.setId("user-" + i);
+			user.setPublic(true);
+			List<Skill> offered = new ArrayList<>();
+			for (String skill : pickSkills(random)) {
+				offered.add(new Skill(skill, SkillLevel.INTERMEDIATE));
+			}
+			user.setOfferedSkills(offered);
+			user.setWantedSkills(new ArrayList<>(pickSkills(random)));
+			users.add(user);
+			byId.put(user.getId(), user);
+		}
+
+		skillIndex = buildIndex();
+		UserService userService = new UserService() {
+			@Override
+			public User findById(String id) {
+				return byId.get(id);
+			}
+		};
+		finder = new SwapCycleFinder();
+		ReflectionTestUtils.setField(finder, "skillIndex", skillIndex);
+		ReflectionTestUtils.setField(finder, "userService", userService);
+		ReflectionTestUtils.setField(finder, "maxExpansions", 20000);
+		ReflectionTestUtils.setField(finder, "maxBranching", 64);
+		ReflectionTestUtils.setField(finder, "timeBudgetMs", 200L);
+
+		roots = new String[ROOTS];
+		for (int i = 0; i < ROOTS; i++) {
+			roots[i] = users.get(random.nextInt(userCount)).getId();
+		}
+	}
+
+	@Benchmark
+	public int buildGraph() {
+		return buildIndex().size();
+	}
+
+	@Benchmark
+	public List<SwapCycleDto> findCycles() {
+		String root = roots[nextRoot];
+		nextRoot = (nextRoot + 1) % roots.length;
+		return finder.findCycles(root, SwapCycleFinder.MAX_CYCLE_SIZE, 10);
+	}
+
+	private SkillIndex buildIndex() {
+		SkillIndex index = new SkillIndex();
+		users.forEach(index::index);
+		return index;
+	}
+
+	// Squaring a uniform draw skews towards low skill numbers, giving a long-tailed popularity
+	private Set<String> pickSkills(Random random) {
+		Set<String> skills = new LinkedHashSet<>();
+		while (skills.size() < SKILLS_PER_USER) {
+			double r = random.nextDouble();
+			skills.add("skill " + (int) (r * r * skillCount));
+		}
+		return skills;
+	}
+}
@@ -0,0 +1,150 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.model.Skill;
+import com.example.model.SkillLevel;
+import com.example.model.User;
+
+/**
+ * One page of UserSearchIndex results at 100k public users, for the query shapes the
+ * search box sends: a two-letter prefix, a whole word, a name plus a location, and a
+ * skill-only search. Names, skills and locations are made of syllables, so their
+ * n-grams overlap the way real words do, and skill popularity is long-tailed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class UserSearchBenchmark {
+
+	private static final String[] SYLLABLES = { "ka", "lo", "mi", "ran", "te", "sor", "vi", "den", "pa", "lu",
+			"mar", "no", "sen", "ti", "bel", "ra", "con", "de", "fin", "go", "har", "is", "jo", "ke", "ven" };
+	private static final int QUERIES = 1000;
+	private static final int PAGE_SIZE = 20;
+
+	@Param({ "100000" })
+	public int userCount;
+
+	@Param({ "2000" })
+	public int skillCount;
+
+	private UserSearchIndex index;
+	private String[] firstNames;
+	private String[] lastNames;
+	private String[] skills;
+	private String[] locations;
+	private String[] prefixQueries;
+	private String[] wordQueries;
+	private String[] nameAndLocationQueries;
+	private String[] skillQueries;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		firstNames = words(random, 500, 2);
+		lastNames = words(random, 2000, 3);
+		skills = words(random, skillCount, 3);
+		locations = words(random, 500, 2);
+
+		index = new UserSearchIndex();
+		for (int i = 0; i < userCount; i++) {
+			index.index(user(i, random));
+		}
+
+		prefixQueries = new String[QUERIES];
+		wordQueries = new String[QUERIES];
+		nameAndLocationQueries = new String[QUERIES];
+		skillQueries = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			prefixQueries[i] = pick(random, lastNames).substring(0, 2);
+			wordQueries[i] = pick(random, lastNames);
+			nameAndLocationQueries[i] = pick(random, firstNames) + " " + pick(random, locations);
+			skillQueries[i] = popularSkill(random);
+		}
+	}
+
+	@Benchmark
+	public List<UserSearchIndex.Hit> prefix() {
+		return index.search(prefixQueries[nextQuery()], UserSearchIndex.ALL_FIELDS, null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<UserSearchIndex.Hit> word() {
+		return index.search(wordQueries[nextQuery()], UserSearchIndex.ALL_FIELDS, null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<UserSearchIndex.Hit> nameAndLocation() {
+		return index.search(nameAndLocationQueries[nextQuery()], UserSearchIndex.ALL_FIELDS, null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<UserSearchIndex.Hit> skill() {
+		return index.search(skillQueries[nextQuery()], UserSearchIndex.SKILL, null, null, PAGE_SIZE);
+	}
+
+	private int nextQuery() {
+		next = (next + 1) % QUERIES;
+		return next;
+	}
+
+	private User user(int i, Random random) {
+		String first = pick(random, firstNames);
+		String last = pick(random, lastNames);
+		User user = new User();
+		user.setId("user-" + i);
+		user.setName(first + " " + last);
+		user.setUsername(first + "_" + last + i);
+		user.setLocation(pick(random, locations));
+		user.setPublic(true);
+		user.setOfferedSkills(new ArrayList<>(List.of(
+				new Skill(popularSkill(random), SkillLevel.INTERMEDIATE),
+				new Skill(popularSkill(random), SkillLevel.EXPERT))));
+		user.setWantedSkills(new ArrayList<>(List.of(popularSkill(random), popularSkill(random))));
+		return user;
+	}
+
+	// Squaring a uniform draw skews towards low skill numbers, giving a long-tailed popularity
+	private String popularSkill(Random random) {
+		double r = random.nextDouble();
+		return skills[(int) (r * r * skills.length)];
+	}
+
+	private static String pick(Random random, String[] words) {
+		return words[random.nextInt(words.length)];
+	}
+
+	// Distinct words of the given number of syllables
+	private static String[] words(Random random, int count, int syllables) {
+		Set<String> words = new LinkedHashSet<>();
+		while (words.size() < count) {
+			StringBuilder word = new StringBuilder();
+			for (int i = 0; i < syllables; i++) {
+				word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			}
+			words.add(word.toString());
+		}
+		return words.toArray(new String[0]);
+	}
+}
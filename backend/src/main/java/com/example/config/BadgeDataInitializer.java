@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -21,20 +22,46 @@ public class BadgeDataInitializer implements CommandLineRunner {
         // Only initialize if no badges exist
         if (badgeRepository.count() == 0) {
             initializeBadges();
+        } else {
+            addMissingRequirements();
         }
     }
 
     private void initializeBadges() {
-        List<Badge> badges = Arrays.asList(
+        badgeRepository.saveAll(seedBadges());
+        System.out.println("✅ Badges initialized successfully!");
+    }
+
+    // Badges seeded before requirements existed only carry a single condition; copy the guards over
+    private void addMissingRequirements() {
+        for (Badge seed : seedBadges()) {
+            if (seed.getRequirements().isEmpty()) {
+                continue;
+            }
+            badgeRepository.findByName(seed.getName())
+                .filter(badge -> badge.getRequirements() == null || badge.getRequirements().isEmpty())
+                .ifPresent(badge -> {
+                    badge.setRequirements(seed.getRequirements());
+                    badge.setUpdatedAt(LocalDateTime.now());
+                    badgeRepository.save(badge);
+                });
+        }
+    }
+
+    private List<Badge> seedBadges() {
+        return Arrays.asList(
             // Rating-based badges
             new Badge("First Steps", "Received your first rating", "Star", "text-yellow-600", "bg-yellow-100", 
                      BadgeRarity.COMMON, "RATING", 1, "totalRatings"),
             new Badge("Rising Star", "Maintain a 3+ star average rating", "Star", "text-yellow-600", "bg-yellow-100", 
-                     BadgeRarity.COMMON, "RATING", 3, "averageRating"),
+                     BadgeRarity.COMMON, "RATING", 3, "averageRating")
+                     .require("totalRatings", 3),
             new Badge("Trusted Partner", "Maintain a 4+ star average rating", "Medal", "text-blue-600", "bg-blue-100", 
-                     BadgeRarity.RARE, "RATING", 4, "averageRating"),
+                     BadgeRarity.RARE, "RATING", 4, "averageRating")
+                     .require("totalRatings", 5),
             new Badge("Perfect Knight", "Maintain a 5-star average rating", "Crown", "text-purple-600", "bg-purple-100", 
-                     BadgeRarity.LEGENDARY, "RATING", 5, "averageRating"),
+                     BadgeRarity.LEGENDARY, "RATING", 5, "averageRating")
+                     .require("averageRating", 4.8).require("totalRatings", 10),
             new Badge("Veteran", "Received 10+ ratings", "Trophy", "text-orange-600", "bg-orange-100", 
                      BadgeRarity.RARE, "RATING", 10, "totalRatings"),
             new Badge("Elite", "Received 25+ ratings", "Award", "text-red-600", "bg-red-100", 
@@ -60,12 +87,11 @@ public class BadgeDataInitializer implements CommandLineRunner {
 
             // Combination badges
             new Badge("Perfect Achiever", "5-star rating with 10+ completed swaps", "Crown", "text-yellow-600", "bg-yellow-100", 
-                     BadgeRarity.LEGENDARY, "COMBINATION", 1, "perfect"),
+                     BadgeRarity.LEGENDARY, "COMBINATION", 1, "perfect")
+                     .require("averageRating", 4.8).require("totalRatings", 10).require("completedSwaps", 10),
             new Badge("Community Pillar", "25+ ratings and 10+ completed swaps", "Trophy", "text-purple-600", "bg-purple-100", 
                      BadgeRarity.EPIC, "COMBINATION", 1, "community")
+                     .require("totalRatings", 25).require("completedSwaps", 10)
         );
-
-        badgeRepository.saveAll(badges);
-        System.out.println("✅ Badges initialized successfully!");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.repository.ChatMessageRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// The keyset indexes replaced these; auto-index-creation only adds indexes, so the old ones are dropped here
+@Component
+public class ChatMessageIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageIndexInitializer.class);
+
+    private static final List<String> OBSOLETE_INDEXES =
+            List.of("swap_created_idx", "sender_created_idx", "receiver_created_idx");
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @PostConstruct
+    public void dropObsoleteIndexes() {
+        List<String> dropped = chatMessageRepository.dropIndexes(OBSOLETE_INDEXES);
+        if (!dropped.isEmpty()) {
+            logger.info("Dropped obsolete chat message indexes {}", dropped);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded outbound buffer per WebSocket session. Sends only enqueue; a small shared pool
+ * writes each session's queue in order, so a slow client never holds a broker or channel
+ * thread. When a session's buffer exceeds its byte limit the overflow policy applies:
+ * "drop" discards the oldest pending frames, "close" terminates the session. A session
+ * whose current write has been stuck longer than the send time limit is always closed,
+ * either when its next frame is queued or by a periodic sweep; closing the connection
+ * fails the blocked write and frees its flush thread for other sessions.
+ */
+@Component
+public class OutboundSessionBuffers implements WebSocketHandlerDecoratorFactory {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundSessionBuffers.class);
+
+    public enum OverflowPolicy { DROP, CLOSE }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.outbound.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    @Value("${app.websocket.outbound.buffer-size-limit-bytes:524288}")
+    private int bufferSizeLimit;
+
+    @Value("${app.websocket.outbound.overflow-policy:close}")
+    private String overflowPolicyName;
+
+    @Value("${app.websocket.outbound.flush-threads:8}")
+    private int flushThreads;
+
+    private OverflowPolicy overflowPolicy;
+    private ExecutorService flushers;
+    private final Map<String, BufferedSession> sessions = new ConcurrentHashMap<>();
+
+    private DistributionSummary queueDepth;
+    private Counter dropped;
+    private Counter closedOnBuffer;
+    private Counter closedOnTime;
+
+    @PostConstruct
+    public void init() {
+        overflowPolicy = OverflowPolicy.valueOf(overflowPolicyName.trim().toUpperCase(Locale.ROOT));
+        AtomicInteger threadCount = new AtomicInteger();
+        flushers = Executors.newFixedThreadPool(Math.max(1, flushThreads), runnable -> {
+            Thread thread = new Thread(runnable, "ws-flush-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        queueDepth = DistributionSummary.builder("websocket.session.queue.depth")
+                .description("Frames pending in a session's buffer when a new one is queued")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        dropped = Counter.builder("websocket.session.dropped")
+                .description("Frames discarded by the drop overflow policy")
+                .register(meterRegistry);
+        closedOnBuffer = Counter.builder("websocket.session.closed")
+                .description("Sessions closed because they could not keep up")
+                .tag("reason", "buffer")
+                .register(meterRegistry);
+        closedOnTime = Counter.builder("websocket.session.closed")
+                .description("Sessions closed because they could not keep up")
+                .tag("reason", "send_time")
+                .register(meterRegistry);
+        Gauge.builder("websocket.session.buffered.bytes", sessions,
+                        all -> all.values().stream().mapToLong(BufferedSession::bufferedBytes).sum())
+                .description("Bytes pending across all session buffers")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", sessions, Map::size)
+                .description("Open WebSocket sessions on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushers.shutdownNow();
+    }
+
+    // Without this, a client that stops reading pins a flush thread until the container
+    // gives up on the write, and a few of them stall delivery for every session
+    @Scheduled(fixedDelayString = "${app.websocket.outbound.stall-check-interval-ms:1000}")
+    public void closeStalledSessions() {
+        long now = System.currentTimeMillis();
+        for (BufferedSession session : sessions.values()) {
+            if (session.isStalled(now)) {
+                session.terminate("write blocked for more than " + sendTimeLimitMs + " ms", closedOnTime);
+            }
+        }
+    }
+
+    // Open sessions on this node, as seen by the STOMP handler
+    public List<WebSocketSession> getSessions() {
+        return List.copyOf(sessions.values());
+    }
+
+    public long getSendTimeLimitMs() { return sendTimeLimitMs; }
+    public int getBufferSizeLimit() { return bufferSizeLimit; }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                BufferedSession buffered = new BufferedSession(session);
+                sessions.put(session.getId(), buffered);
+                super.afterConnectionEstablished(buffered);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                BufferedSession buffered = sessions.remove(session.getId());
+                if (buffered != null) {
+                    buffered.release();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private class BufferedSession extends WebSocketSessionDecorator {
+        // Guarded by this
+        private final Deque<WebSocketMessage<?>> pending = new ArrayDeque<>();
+        private long pendingBytes;
+        private boolean flushScheduled;
+
+        private volatile long writeStartedAt;
+        private volatile boolean terminated;
+
+        BufferedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        synchronized long bufferedBytes() {
+            return pendingBytes;
+        }
+
+        boolean isStalled(long now) {
+            long started = writeStartedAt;
+            return !terminated && started != 0 && now - started > sendTimeLimitMs;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            if (terminated) {
+                return;
+            }
+            if (isStalled(System.currentTimeMillis())) {
+                terminate("write blocked for more than " + sendTimeLimitMs + " ms", closedOnTime);
+                return;
+            }
+            boolean overflow = false;
+            boolean schedule;
+            int depth;
+            synchronized (this) {
+                pending.addLast(message);
+                pendingBytes += message.getPayloadLength();
+                if (pendingBytes > bufferSizeLimit) {
+                    if (overflowPolicy == OverflowPolicy.CLOSE) {
+                        overflow = true;
+                    } else {
+                        // Keep the newest frames; the client reloads anything missed from history
+                        while (pendingBytes > bufferSizeLimit && pending.size() > 1) {
+                            pendingBytes -= pending.pollFirst().getPayloadLength();
+                            dropped.increment();
+                        }
+                    }
+                }
+                depth = pending.size();
+                schedule = !overflow && !flushScheduled;
+                flushScheduled |= schedule;
+            }
+            queueDepth.record(depth);
+            if (overflow) {
+                terminate("buffer exceeded " + bufferSizeLimit + " bytes", closedOnBuffer);
+                return;
+            }
+            if (schedule) {
+                flushers.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            while (!terminated) {
+                WebSocketMessage<?> next;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                    if (next == null) {
+                        flushScheduled = false;
+                        return;
+                    }
+                    pendingBytes -= next.getPayloadLength();
+                }
+                writeStartedAt = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(next);
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Send to WebSocket session {} failed: {}", getId(), e.getMessage());
+                    terminate(null, null);
+                    return;
+                } finally {
+                    writeStartedAt = 0;
+                }
+            }
+        }
+
+        // Closes at most once; the reason counter is only incremented by the call that closes
+        private void terminate(String reason, Counter cause) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+                discard();
+            }
+            if (cause != null) {
+                cause.increment();
+            }
+            if (reason != null) {
+                logger.warn("Closing slow WebSocket session {}: {}", getId(), reason);
+            }
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                logger.debug("Failed to close WebSocket session {}: {}", getId(), e.getMessage());
+            }
+        }
+
+        // The connection is gone; stop flushing and free whatever is still queued
+        void release() {
+            terminated = true;
+            discard();
+        }
+
+        private synchronized void discard() {
+            pending.clear();
+            pendingBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.repository.UserBadgeRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Runs before the app serves requests, so no award can be written between the clean-up and the index build
+@Component
+public class UserBadgeIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(UserBadgeIndexInitializer.class);
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @PostConstruct
+    public void ensureUniqueAwards() {
+        int removed = userBadgeRepository.removeDuplicateAwards();
+        if (removed > 0) {
+            logger.info("Removed {} duplicate badge awards", removed);
+        }
+        userBadgeRepository.ensureUniqueAwardIndex();
+    }
+}
@@ -1,20 +1,107 @@
 package com.example.config;
 
+import java.util.concurrent.ThreadPoolExecutor;
 
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import com.example.security.StompAuthChannelInterceptor;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * STOMP messaging. app.websocket.broker.mode selects the broker: "simple" keeps the
+ * in-memory broker (single node), "relay" forwards /topic and /queue to an external STOMP
+ * broker so every node sees every message. In relay mode the user registry and unresolved
+ * user destinations are broadcast between nodes, so convertAndSendToUser reaches a user
+ * whichever node their session is on.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private WebSocketFanoutMetrics fanoutMetrics;
+
+    @Autowired
+    private OutboundSessionBuffers outboundSessionBuffers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    // Heartbeats in ms as {server sends, server expects from client}
+    @Value("${app.websocket.heartbeat.send-ms:10000}")
+    private long heartbeatSendMs;
+
+    @Value("${app.websocket.heartbeat.receive-ms:10000}")
+    private long heartbeatReceiveMs;
+
+    @Value("${app.websocket.inbound.message-size-limit-bytes:65536}")
+    private int messageSizeLimit;
+
+    @Value("${app.websocket.outbound.channel-pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${app.websocket.outbound.channel-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // An explicit client, because Spring only builds one itself when reactor-netty-http
+            // is present and this project ships reactor-netty-core alone
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setTcpClient(new ReactorNettyTcpClient<>(relayHost, relayPort, new StompReactorNettyCodec()))
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatSendMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatReceiveMs)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {heartbeatSendMs, heartbeatReceiveMs})
+                    .setTaskScheduler(heartbeatScheduler());
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -23,4 +110,51 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(outboundChannelExecutor());
+        registration.interceptors(fanoutMetrics);
+    }
+
+    // Session sends only enqueue (OutboundSessionBuffers), so these limits back up the
+    // container-level decorator rather than being the first line of defence
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendTimeLimit((int) outboundSessionBuffers.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(outboundSessionBuffers.getBufferSizeLimit())
+                .addDecoratorFactory(outboundSessionBuffers);
+    }
+
+    // Bounded instead of the default unbounded queue; when it fills up the publishing
+    // thread does the hand-off itself, which slows producers down rather than growing the heap
+    private ThreadPoolTaskExecutor outboundChannelExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboundPoolSize);
+        executor.setMaxPoolSize(outboundPoolSize);
+        executor.setQueueCapacity(outboundQueueCapacity);
+        executor.setThreadNamePrefix("ws-outbound-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        Gauge.builder("websocket.outbound.channel.queue", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting for a client outbound channel thread")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // Not a bean, so it doesn't replace the scheduler Spring Boot sets up for @Scheduled
+    private static ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
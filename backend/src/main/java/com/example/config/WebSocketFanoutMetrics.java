@@ -0,0 +1,60 @@
+package com.example.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import com.example.service.RealtimePublisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+// Counts messages written to client sessions on this node and how long they took from publish
+@Component
+public class WebSocketFanoutMetrics implements ChannelInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter delivered;
+    private Timer latency;
+
+    @PostConstruct
+    public void registerMetrics() {
+        delivered = Counter.builder("websocket.fanout.delivered")
+                .description("Messages sent to client sessions on this node")
+                .register(meterRegistry);
+        latency = Timer.builder("websocket.fanout.latency")
+                .description("Time from publish to hand-off to the client session")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        delivered.increment();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String publishedAt = accessor.getFirstNativeHeader(RealtimePublisher.PUBLISHED_AT_HEADER);
+        if (publishedAt != null) {
+            try {
+                long elapsed = System.currentTimeMillis() - Long.parseLong(publishedAt);
+                // Clock skew between nodes can make relayed messages look like they arrived early
+                latency.record(Math.max(0, elapsed), TimeUnit.MILLISECONDS);
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return message;
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.dto.ApiResponse;
 import com.example.dto.FlaggedSkillDto;
@@ -24,9 +31,14 @@ import com.example.dto.PlatformAnnouncementDto;
 import com.example.dto.UserBanDto;
 import com.example.model.FlaggedSkill;
 import com.example.model.PlatformAnnouncement;
+import com.example.model.ReportJob;
 import com.example.model.SwapRequest;
+import com.example.model.SwapStatus;
 import com.example.model.UserBan;
+import com.example.service.AdminExportService;
 import com.example.service.AdminService;
+import com.example.service.ChatMessageMigration;
+import com.example.service.ReportJobService;
 import com.example.service.UserPrincipal;
 
 import jakarta.validation.Valid;
@@ -39,6 +51,15 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AdminExportService adminExportService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ChatMessageMigration chatMessageMigration;
+
     // ========================
     // DASHBOARD STATISTICS
     // ========================
@@ -216,24 +237,116 @@ public class AdminController {
     // REPORTS GENERATION
     // ========================
     
+    // Served from the report job cache; on a miss the request completes asynchronously
+    // when the job finishes instead of holding a servlet thread
     @GetMapping("/reports/user-activity")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getUserActivityReport() {
-        Map<String, Object> report = adminService.generateUserActivityReport();
-        return ResponseEntity.ok(report);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getUserActivityReport(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return reportJobService.getReport(ReportJob.Type.USER_ACTIVITY, userPrincipal.getId())
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/reports/swap-stats")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getSwapStatsReport() {
-        Map<String, Object> report = adminService.generateSwapStatsReport();
-        return ResponseEntity.ok(report);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getSwapStatsReport(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return reportJobService.getReport(ReportJob.Type.SWAP_STATS, userPrincipal.getId())
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/reports/feedback")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getFeedbackReport() {
-        Map<String, Object> report = adminService.generateFeedbackReport();
-        return ResponseEntity.ok(report);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getFeedbackReport(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return reportJobService.getReport(ReportJob.Type.FEEDBACK, userPrincipal.getId())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/reports/{reportType}/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ReportJob>> submitReportJob(
+            @PathVariable String reportType,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false, defaultValue = "false") boolean refresh) {
+        ReportJob job = reportJobService.submit(reportJobService.parseType(reportType), userPrincipal.getId(), refresh);
+        String message = job.isFinished() ? "Report served from cache" : "Report job queued";
+        return ResponseEntity.status(job.isFinished() ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(job, message));
+    }
+
+    @GetMapping("/reports/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJob> getReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    // ========================
+    // DATA MIGRATIONS
+    // ========================
+
+    @GetMapping("/migrations/chat-messages")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getChatMigrationStatus() {
+        return ResponseEntity.ok(chatMessageMigration.getStatus());
+    }
+
+    @PostMapping("/migrations/chat-messages")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> startChatMigration() {
+        boolean started = chatMessageMigration.start();
+        return ResponseEntity.ok(ApiResponse.success(chatMessageMigration.getStatus(),
+                started ? "Chat message migration started" : "Chat message migration is already running"));
+    }
+
+    // ========================
+    // DATA EXPORTS
+    // ========================
+
+    @GetMapping("/export/swaps")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSwaps(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        SwapStatus swapStatus = adminExportService.parseStatus(status);
+        adminExportService.validateRange(from, to);
+        return export("swaps", exportFormat,
+                out -> adminExportService.exportSwaps(exportFormat, swapStatus, from, to, out));
+    }
+
+    @GetMapping("/export/bans")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBans(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        adminExportService.validateRange(from, to);
+        return export("bans", exportFormat,
+                out -> adminExportService.exportBans(exportFormat, from, to, out));
+    }
+
+    @GetMapping("/export/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.parse(format);
+        adminExportService.validateRange(from, to);
+        return export("users", exportFormat,
+                out -> adminExportService.exportUsers(exportFormat, from, to, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, AdminExportService.Format format,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "-" + LocalDate.now() + "." + format.getExtension() + "\"")
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -11,10 +11,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.dto.ApiResponse;
 import com.example.dto.BadgeDto;
+import com.example.model.BadgeBackfillJob;
+import com.example.service.BadgeBackfillService;
 import com.example.service.BadgeService;
 import com.example.service.UserPrincipal;
 
@@ -26,6 +29,9 @@ public class BadgeController {
     @Autowired
     private BadgeService badgeService;
 
+    @Autowired
+    private BadgeBackfillService badgeBackfillService;
+
     @GetMapping("/user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<BadgeDto>> getUserBadges(@AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -75,4 +81,39 @@ public class BadgeController {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "Failed to check badges: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> startBackfill(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                     @RequestParam(defaultValue = "false") boolean resume) {
+        try {
+            BadgeBackfillJob job = badgeBackfillService.start(userPrincipal.getId(), resume);
+            return ResponseEntity.ok(new ApiResponse(true, job, "Badge backfill started"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Failed to start badge backfill: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/backfill/latest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BadgeBackfillJob> getLatestBackfill() {
+        return ResponseEntity.ok(badgeBackfillService.getLatestJob());
+    }
+
+    @GetMapping("/backfill/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BadgeBackfillJob> getBackfill(@PathVariable String jobId) {
+        return ResponseEntity.ok(badgeBackfillService.getJob(jobId));
+    }
+
+    @PostMapping("/backfill/{jobId}/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> cancelBackfill(@PathVariable String jobId) {
+        try {
+            badgeBackfillService.cancel(jobId);
+            return ResponseEntity.ok(new ApiResponse(true, "Badge backfill cancellation requested"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Failed to cancel badge backfill: " + e.getMessage()));
+        }
+    }
+}
@@ -16,11 +16,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.dto.ApiResponse;
 import com.example.dto.ChatMessageDto;
+import com.example.dto.ConversationSummaryDto;
+import com.example.dto.CursorPage;
 import com.example.model.ChatMessage;
+import com.example.model.UnreadCounter;
 import com.example.service.ChatService;
 import com.example.service.UserPrincipal;
 
@@ -29,6 +33,7 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/chat")
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class ChatController {
+    public static final String NEWEST_CURSOR_HEADER = "X-Newest-Cursor";
 
     @Autowired
     private ChatService chatService;
@@ -42,27 +47,51 @@ public class ChatController {
         chatService.sendMessage(userPrincipal.getId(), messageDto);
     }
 
+    // Pages stay plain JSON arrays in chronological order; the cursor continuing in the
+    // requested direction travels in the X-Next-Cursor header
     @GetMapping("/swap/{swapRequestId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<ChatMessage>> getSwapMessages(
             @PathVariable String swapRequestId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(chatService.getSwapMessages(swapRequestId, userPrincipal.getId()));
+        CursorPage<ChatMessage> page = chatService.getSwapMessages(swapRequestId, userPrincipal.getId(), before, after, limit);
+        ResponseEntity.BodyBuilder response = pageHeaders(page);
+        // Lets a client poll with after= from the newest message it holds
+        if (!page.getItems().isEmpty()) {
+            response.header(NEWEST_CURSOR_HEADER, ChatService.toCursor(page.getItems().get(page.getItems().size() - 1)));
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<ChatMessage>> getUserMessages(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(chatService.getUserMessages(userPrincipal.getId()));
+        return toPageResponse(chatService.getUserMessages(userPrincipal.getId(), before, limit));
     }
 
     // Endpoint for getting all messages (alias for /me)
     @GetMapping("/messages")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<ChatMessage>> getMessages(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return toPageResponse(chatService.getUserMessages(userPrincipal.getId(), before, limit));
+    }
+
+    // Inbox: one row per swap conversation with the latest message and unread count
+    @GetMapping("/conversations")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<ConversationSummaryDto>> getConversations(
+            @RequestParam(defaultValue = "50") int limit,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(chatService.getUserMessages(userPrincipal.getId()));
+        return ResponseEntity.ok(chatService.getConversations(userPrincipal.getId(), limit));
     }
 
     @PutMapping("/read/{messageId}")
@@ -70,10 +99,22 @@ public class ChatController {
     public ResponseEntity<ApiResponse> markMessageAsRead(
             @PathVariable String messageId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        chatService.markMessageAsRead(messageId, userPrincipal.getId());
+        chatService.markMessageAsRead(messageId, userPrincipal.getId(), userPrincipal.getUsername());
         return ResponseEntity.ok(new ApiResponse(true, "Message marked as read"));
     }
 
+    // Marks the conversation read up to a message (the newest when upTo is omitted)
+    @PutMapping("/swap/{swapRequestId}/read")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> markConversationRead(
+            @PathVariable String swapRequestId,
+            @RequestParam(required = false) String upTo,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        UnreadCounter counter = chatService.markConversationRead(
+                swapRequestId, userPrincipal.getId(), userPrincipal.getUsername(), upTo);
+        return ResponseEntity.ok(new ApiResponse(true, counter, "Conversation marked as read"));
+    }
+
     @GetMapping("/unread/count")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Long> getUnreadMessageCount(
@@ -81,6 +122,14 @@ public class ChatController {
         return ResponseEntity.ok(chatService.getUnreadMessageCount(userPrincipal.getId()));
     }
 
+    // Total and per-conversation unread counts; the same document is pushed on /user/queue/unread
+    @GetMapping("/unread")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UnreadCounter> getUnreadCounters(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(chatService.getUnreadCounters(userPrincipal.getId()));
+    }
+
     // REST endpoint for sending messages (alternative to WebSocket)
     @PostMapping("/swap/{swapRequestId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -96,4 +145,16 @@ public class ChatController {
             return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private <T> ResponseEntity<List<T>> toPageResponse(CursorPage<T> page) {
+        return pageHeaders(page).body(page.getItems());
+    }
+
+    private static ResponseEntity.BodyBuilder pageHeaders(CursorPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(UserController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.service.SkillDictionary;
+
+@RestController
+@RequestMapping("/api/skills")
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class SkillController {
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SkillDictionary.SkillEntry>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(skillDictionary.suggest(prefix, limit));
+    }
+}
@@ -12,15 +12,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.dto.ApiResponse;
+import com.example.dto.SwapCycleDto;
 import com.example.dto.SwapRequestDto;
 import com.example.model.SwapRequest;
 import com.example.model.SwapStatus;
-import com.example.model.User;
-import com.example.repository.UserRepository;
+import com.example.service.SwapCycleFinder;
 import com.example.service.SwapService;
+import com.example.service.UserHydrator;
 import com.example.service.UserPrincipal;
 
 import jakarta.validation.Valid;
@@ -33,7 +35,10 @@ public class SwapController {
     private SwapService swapService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserHydrator userHydrator;
+
+    @Autowired
+    private SwapCycleFinder swapCycleFinder;
 
     @PostMapping
     public ResponseEntity<?> createSwapRequest(@Valid @RequestBody SwapRequestDto swapRequestDto,
@@ -93,20 +98,8 @@ public class SwapController {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             String userId = userPrincipal.getId();
-            List<SwapRequest> swapRequests = swapService.getUserSwapRequests(userId);
-            
-            // Populate user objects for frontend
-            for (SwapRequest swap : swapRequests) {
-                if (swap.getRequesterId() != null) {
-                    User requester = userRepository.findById(swap.getRequesterId()).orElse(null);
-                    swap.setRequester(requester);
-                }
-                if (swap.getRequestedUserId() != null) {
-                    User requestedUser = userRepository.findById(swap.getRequestedUserId()).orElse(null);
-                    swap.setRequestedUser(requestedUser);
-                }
-            }
-            
+            List<SwapRequest> swapRequests = userHydrator.hydrateSwapRequests(swapService.getUserSwapRequests(userId));
+
             return ResponseEntity.ok(new ApiResponse<>(true, swapRequests, "Swap requests retrieved"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -126,4 +119,18 @@ public class SwapController {
                     .body(new ApiResponse<>(false, null, e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cycles")
+    public ResponseEntity<?> getSwapCycles(@RequestParam(defaultValue = "5") int maxSize,
+                                           @RequestParam(defaultValue = "10") int limit,
+                                           Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            List<SwapCycleDto> cycles = swapCycleFinder.findCycles(userPrincipal.getId(), maxSize, Math.min(limit, 50));
+            return ResponseEntity.ok(new ApiResponse<>(true, cycles, "Swap cycles retrieved"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.controller;
 
 import com.example.dto.ApiResponse;
+import com.example.dto.CursorPage;
 import com.example.dto.UserProfileDto;
-import com.example.dto.SearchDto;
+import com.example.dto.UserSummaryDto;
 import com.example.service.UserService;
 import com.example.service.UserPrincipal;
 import jakarta.validation.Valid;
@@ -13,13 +14,13 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import org.springframework.security.core.Authentication;
-import com.example.model.User;
 
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private UserService userService;
 
@@ -45,29 +46,51 @@ public class UserController {
     }
 
     @GetMapping("/public")
-    public ResponseEntity<List<UserProfileDto>> getPublicUsers() {
-        return ResponseEntity.ok(userService.getAllPublicUsers());
+    public ResponseEntity<List<UserSummaryDto>> getPublicUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return toPageResponse(userService.getPublicUsers(cursor, limit));
     }
 
     @PostMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam(required = false) String q,
-                                                  @RequestParam(required = false) String skill,
-                                                  Authentication authentication) {
-        String currentUserId = authentication.getName();
-        List<User> users = userService.searchUsers(q, skill, currentUserId);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummaryDto>> searchUsers(@RequestParam(required = false) String q,
+                                                            @RequestParam(required = false) String skill,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") int limit,
+                                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return toPageResponse(userService.searchUsers(q, skill, userPrincipal.getId(), cursor, limit));
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<User>> getAvailableUsers(Authentication authentication) {
-        String currentUserId = authentication.getName();
-        List<User> users = userService.getAvailableUsers(currentUserId);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummaryDto>> getAvailableUsers(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return toPageResponse(userService.getAvailableUsers(userPrincipal.getId(), cursor, limit));
+    }
+
+    @GetMapping("/matches")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<UserProfileDto>> getPotentialMatches(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "20") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(userService.getPotentialMatches(userPrincipal.getId(), boundedLimit));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<UserProfileDto> getUserById(@PathVariable String id) {
+        UserProfileDto profile = userService.getUserProfile(id);
         userService.incrementProfileViews(id);
-        return ResponseEntity.ok(userService.getUserProfile(id));
+        return ResponseEntity.ok(profile);
+    }
+
+    // Lists stay plain JSON arrays; the cursor for the next page travels in a header
+    private <T> ResponseEntity<List<T>> toPageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
-}
\ No newline at end of file
+}
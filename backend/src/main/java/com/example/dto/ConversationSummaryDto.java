@@ -0,0 +1,44 @@
+package com.example.dto;
+
+import com.example.model.ChatMessage;
+import com.example.model.User;
+
+// One inbox row: a swap conversation with its latest message and the caller's unread count
+public class ConversationSummaryDto {
+    private String swapRequestId;
+    private String otherUserId;
+    private String otherUserName;
+    private String otherUserPhoto;
+    private ChatMessage lastMessage;
+    private long unreadCount;
+
+    public ConversationSummaryDto(String swapRequestId, String otherUserId, User otherUser,
+                                  ChatMessage lastMessage, long unreadCount) {
+        this.swapRequestId = swapRequestId;
+        this.otherUserId = otherUserId;
+        if (otherUser != null) {
+            this.otherUserName = ChatMessage.displayName(otherUser);
+            this.otherUserPhoto = otherUser.getProfilePhoto();
+        }
+        this.lastMessage = lastMessage;
+        this.unreadCount = unreadCount;
+    }
+
+    public String getSwapRequestId() { return swapRequestId; }
+    public void setSwapRequestId(String swapRequestId) { this.swapRequestId = swapRequestId; }
+
+    public String getOtherUserId() { return otherUserId; }
+    public void setOtherUserId(String otherUserId) { this.otherUserId = otherUserId; }
+
+    public String getOtherUserName() { return otherUserName; }
+    public void setOtherUserName(String otherUserName) { this.otherUserName = otherUserName; }
+
+    public String getOtherUserPhoto() { return otherUserPhoto; }
+    public void setOtherUserPhoto(String otherUserPhoto) { this.otherUserPhoto = otherUserPhoto; }
+
+    public ChatMessage getLastMessage() { return lastMessage; }
+    public void setLastMessage(ChatMessage lastMessage) { this.lastMessage = lastMessage; }
+
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+}
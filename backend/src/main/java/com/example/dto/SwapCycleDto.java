@@ -0,0 +1,43 @@
+package com.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A proposed multi-party swap ring: each leg's user teaches the next one a skill they want
+public class SwapCycleDto {
+    private List<Leg> legs = new ArrayList<>();
+
+    public SwapCycleDto() {}
+
+    public SwapCycleDto(List<Leg> legs) {
+        this.legs = legs;
+    }
+
+    public List<Leg> getLegs() { return legs; }
+    public void setLegs(List<Leg> legs) { this.legs = legs; }
+
+    public int getSize() { return legs.size(); }
+
+    public static class Leg {
+        private String fromUserId;
+        private String toUserId;
+        private String skill;
+
+        public Leg() {}
+
+        public Leg(String fromUserId, String toUserId, String skill) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.skill = skill;
+        }
+
+        public String getFromUserId() { return fromUserId; }
+        public void setFromUserId(String fromUserId) { this.fromUserId = fromUserId; }
+
+        public String getToUserId() { return toUserId; }
+        public void setToUserId(String toUserId) { this.toUserId = toUserId; }
+
+        public String getSkill() { return skill; }
+        public void setSkill(String skill) { this.skill = skill; }
+    }
+}
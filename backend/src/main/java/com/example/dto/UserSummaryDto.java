@@ -0,0 +1,74 @@
+package com.example.dto;
+
+import java.util.List;
+
+import com.example.model.ProfileStats;
+import com.example.model.Skill;
+import com.example.model.User;
+
+// Slim user view for list endpoints: no email, password hash, photo or full stats
+public class UserSummaryDto {
+    private String id;
+    private String name;
+    private String username;
+    private String location;
+    private String tagline;
+    private String availability;
+    private List<Skill> offeredSkills;
+    private List<String> wantedSkills;
+    private double averageRating;
+    private int totalRatings;
+    private int completedSwaps;
+
+    public static UserSummaryDto from(User user) {
+        UserSummaryDto dto = new UserSummaryDto();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setUsername(user.getUsername());
+        dto.setLocation(user.getLocation());
+        dto.setTagline(user.getTagline());
+        dto.setAvailability(user.getAvailability());
+        dto.setOfferedSkills(user.getOfferedSkills());
+        dto.setWantedSkills(user.getWantedSkills());
+        ProfileStats stats = user.getStats();
+        if (stats != null) {
+            dto.setAverageRating(stats.getAverageRating());
+            dto.setTotalRatings(stats.getTotalRatings());
+            dto.setCompletedSwaps(stats.getCompletedSwaps());
+        }
+        return dto;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public String getTagline() { return tagline; }
+    public void setTagline(String tagline) { this.tagline = tagline; }
+
+    public String getAvailability() { return availability; }
+    public void setAvailability(String availability) { this.availability = availability; }
+
+    public List<Skill> getOfferedSkills() { return offeredSkills; }
+    public void setOfferedSkills(List<Skill> offeredSkills) { this.offeredSkills = offeredSkills; }
+
+    public List<String> getWantedSkills() { return wantedSkills; }
+    public void setWantedSkills(List<String> wantedSkills) { this.wantedSkills = wantedSkills; }
+
+    public double getAverageRating() { return averageRating; }
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+
+    public int getTotalRatings() { return totalRatings; }
+    public void setTotalRatings(int totalRatings) { this.totalRatings = totalRatings; }
+
+    public int getCompletedSwaps() { return completedSwaps; }
+    public void setCompletedSwaps(int completedSwaps) { this.completedSwaps = completedSwaps; }
+}
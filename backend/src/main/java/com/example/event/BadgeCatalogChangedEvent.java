@@ -0,0 +1,14 @@
+package com.example.event;
+
+import com.example.service.BadgeCatalog;
+
+// Published after the in-memory badge catalog picked up a new version of the badges collection
+public class BadgeCatalogChangedEvent {
+    private final BadgeCatalog.Snapshot snapshot;
+
+    public BadgeCatalogChangedEvent(BadgeCatalog.Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public BadgeCatalog.Snapshot getSnapshot() { return snapshot; }
+}
@@ -0,0 +1,17 @@
+package com.example.event;
+
+// Published when something changes which of a user's tokens may still authenticate
+public class UserAccessChangedEvent {
+    public enum Change { BANNED, UNBANNED }
+
+    private final String userId;
+    private final Change change;
+
+    public UserAccessChangedEvent(String userId, Change change) {
+        this.userId = userId;
+        this.change = change;
+    }
+
+    public String getUserId() { return userId; }
+    public Change getChange() { return change; }
+}
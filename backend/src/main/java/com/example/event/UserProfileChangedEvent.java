@@ -0,0 +1,14 @@
+package com.example.event;
+
+import com.example.model.User;
+
+// Published after a user's searchable profile data (skills, name, location, visibility) is saved
+public class UserProfileChangedEvent {
+    private final User user;
+
+    public UserProfileChangedEvent(User user) {
+        this.user = user;
+    }
+
+    public User getUser() { return user; }
+}
@@ -0,0 +1,24 @@
+package com.example.event;
+
+import java.util.Set;
+
+// Published after one or more ProfileStats fields of a user were written
+public class UserStatsChangedEvent {
+    public static final String TOTAL_SWAPS = "totalSwaps";
+    public static final String COMPLETED_SWAPS = "completedSwaps";
+    public static final String PROFILE_VIEWS = "profileViews";
+    public static final String AVERAGE_RATING = "averageRating";
+    public static final String TOTAL_RATINGS = "totalRatings";
+    public static final String TOTAL_MESSAGES = "totalMessages";
+
+    private final String userId;
+    private final Set<String> changedFields;
+
+    public UserStatsChangedEvent(String userId, String... changedFields) {
+        this.userId = userId;
+        this.changedFields = Set.of(changedFields);
+    }
+
+    public String getUserId() { return userId; }
+    public Set<String> getChangedFields() { return changedFields; }
+}
@@ -0,0 +1,50 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Single document of dashboard totals, kept current with $inc by the write paths
+// and periodically recounted from the source collections.
+@Document(collection = "admin_counters")
+public class AdminCounters {
+    public static final String GLOBAL_ID = "global";
+
+    @Id
+    private String id = GLOBAL_ID;
+
+    private long totalUsers;
+    private long activeUsers;
+    private long activeBans;
+    private long totalSwaps;
+    private Map<String, Long> swapsByStatus = new HashMap<>();
+    private long pendingFlaggedSkills;
+    private long activeAnnouncements;
+    private LocalDateTime reconciledAt;
+
+    public long getSwapCount(SwapStatus status) {
+        return swapsByStatus == null ? 0 : swapsByStatus.getOrDefault(status.name(), 0L);
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public long getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(long totalUsers) { this.totalUsers = totalUsers; }
+    public long getActiveUsers() { return activeUsers; }
+    public void setActiveUsers(long activeUsers) { this.activeUsers = activeUsers; }
+    public long getActiveBans() { return activeBans; }
+    public void setActiveBans(long activeBans) { this.activeBans = activeBans; }
+    public long getTotalSwaps() { return totalSwaps; }
+    public void setTotalSwaps(long totalSwaps) { this.totalSwaps = totalSwaps; }
+    public Map<String, Long> getSwapsByStatus() { return swapsByStatus; }
+    public void setSwapsByStatus(Map<String, Long> swapsByStatus) { this.swapsByStatus = swapsByStatus; }
+    public long getPendingFlaggedSkills() { return pendingFlaggedSkills; }
+    public void setPendingFlaggedSkills(long pendingFlaggedSkills) { this.pendingFlaggedSkills = pendingFlaggedSkills; }
+    public long getActiveAnnouncements() { return activeAnnouncements; }
+    public void setActiveAnnouncements(long activeAnnouncements) { this.activeAnnouncements = activeAnnouncements; }
+    public LocalDateTime getReconciledAt() { return reconciledAt; }
+    public void setReconciledAt(LocalDateTime reconciledAt) { this.reconciledAt = reconciledAt; }
+}
@@ -1,6 +1,8 @@
 package com.example.model;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -28,6 +30,10 @@ public class Badge {
 
     private String conditionField; // Field to check (e.g., "averageRating", "totalSwaps")
 
+    // Additional minimums on other stat fields, e.g. {"totalRatings": 5} for an average-rating badge.
+    // An entry for conditionField itself overrides conditionValue.
+    private Map<String, Double> requirements = new HashMap<>();
+
     private Boolean isActive = true;
 
     private LocalDateTime createdAt;
@@ -136,6 +142,20 @@ public class Badge {
         this.conditionField = conditionField;
     }
 
+    public Map<String, Double> getRequirements() {
+        return requirements;
+    }
+
+    public void setRequirements(Map<String, Double> requirements) {
+        this.requirements = requirements;
+    }
+
+    // Fluent helper for seed data
+    public Badge require(String field, double minimum) {
+        this.requirements.put(field, minimum);
+        return this;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
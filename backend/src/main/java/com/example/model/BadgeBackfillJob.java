@@ -0,0 +1,66 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Progress and checkpoint of an admin-triggered badge backfill. Every user with an id
+// up to lastUserId has been evaluated, so a resumed job continues right after it.
+@Document(collection = "badge_backfill_jobs")
+public class BadgeBackfillJob {
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    private String id;
+
+    @Indexed
+    private Status status;
+
+    private String startedBy;
+    private String lastUserId;
+    private long totalUsers;
+    private long processedUsers;
+    private long awardedBadges;
+    private double usersPerMinute;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public BadgeBackfillJob() {
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getStartedBy() { return startedBy; }
+    public void setStartedBy(String startedBy) { this.startedBy = startedBy; }
+    public String getLastUserId() { return lastUserId; }
+    public void setLastUserId(String lastUserId) { this.lastUserId = lastUserId; }
+    public long getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(long totalUsers) { this.totalUsers = totalUsers; }
+    public long getProcessedUsers() { return processedUsers; }
+    public void setProcessedUsers(long processedUsers) { this.processedUsers = processedUsers; }
+    public long getAwardedBadges() { return awardedBadges; }
+    public void setAwardedBadges(long awardedBadges) { this.awardedBadges = awardedBadges; }
+    public double getUsersPerMinute() { return usersPerMinute; }
+    public void setUsersPerMinute(double usersPerMinute) { this.usersPerMinute = usersPerMinute; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
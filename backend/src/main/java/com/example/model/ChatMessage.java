@@ -1,53 +1,85 @@
 package com.example.model;
 
-import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
+// Participants and swap are stored as plain ids with the sender's display name copied in,
+// so reading a conversation is one indexed query with no per-message lookups
 @Document(collection = "chat_messages")
+@CompoundIndexes({
+    @CompoundIndex(name = "swap_created_id_idx", def = "{'swapRequestId': 1, 'createdAt': 1, '_id': 1}"),
+    @CompoundIndex(name = "sender_created_id_idx", def = "{'senderId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "receiver_created_id_idx", def = "{'receiverId': 1, 'createdAt': -1, '_id': -1}")
+})
 public class ChatMessage {
     @Id
     private String id;
 
-    @DBRef
-    private User sender;
-
-    @DBRef
-    private User receiver;
-
-    @DBRef
-    private SwapRequest swapRequest;
+    private String swapRequestId;
+    private String senderId;
+    private String senderName;
+    private String receiverId;
 
     private String content;
     private boolean isRead = false;
     private MessageType type = MessageType.TEXT;
 
-    @CreatedDate
     private LocalDateTime createdAt;
 
-    public ChatMessage() {}
+    public ChatMessage() {
+        this.createdAt = LocalDateTime.now();
+    }
 
-    public ChatMessage(User sender, User receiver, SwapRequest swapRequest, String content) {
-        this.sender = sender;
-        this.receiver = receiver;
-        this.swapRequest = swapRequest;
+    public ChatMessage(User sender, String receiverId, String swapRequestId, String content) {
+        this();
+        this.senderId = sender.getId();
+        this.senderName = displayName(sender);
+        this.receiverId = receiverId;
+        this.swapRequestId = swapRequestId;
         this.content = content;
     }
 
+    public static String displayName(User user) {
+        return user.getName() != null && !user.getName().isBlank() ? user.getName() : user.getUsername();
+    }
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
-    public User getSender() { return sender; }
-    public void setSender(User sender) { this.sender = sender; }
+    public String getSwapRequestId() { return swapRequestId; }
+    public void setSwapRequestId(String swapRequestId) { this.swapRequestId = swapRequestId; }
 
-    public User getReceiver() { return receiver; }
-    public void setReceiver(User receiver) { this.receiver = receiver; }
+    public String getSenderId() { return senderId; }
+    public void setSenderId(String senderId) { this.senderId = senderId; }
 
-    public SwapRequest getSwapRequest() { return swapRequest; }
-    public void setSwapRequest(SwapRequest swapRequest) { this.swapRequest = swapRequest; }
+    public String getSenderName() { return senderName; }
+    public void setSenderName(String senderName) { this.senderName = senderName; }
+
+    public String getReceiverId() { return receiverId; }
+    public void setReceiverId(String receiverId) { this.receiverId = receiverId; }
+
+    // Compact participant objects so clients reading sender.id / receiver.id keep working
+    @Transient
+    public Map<String, String> getSender() {
+        Map<String, String> sender = new HashMap<>();
+        sender.put("id", senderId);
+        sender.put("name", senderName);
+        return sender;
+    }
+
+    @Transient
+    public Map<String, String> getReceiver() {
+        Map<String, String> receiver = new HashMap<>();
+        receiver.put("id", receiverId);
+        return receiver;
+    }
 
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
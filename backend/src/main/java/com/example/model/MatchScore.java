@@ -0,0 +1,56 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Cached match percentage of targetId as seen by viewerId. Scores are directional
+// because the rating and activity parts only look at the target's stats.
+@Document(collection = "match_scores")
+public class MatchScore {
+    @Id
+    private String id;
+
+    @Indexed
+    private String viewerId;
+
+    @Indexed
+    private String targetId;
+
+    private int score;
+
+    // Pairs nobody has been served or recomputed for a while are dropped and rescored on demand
+    @Indexed(expireAfter = "30d")
+    private LocalDateTime computedAt;
+
+    public MatchScore() {}
+
+    public MatchScore(String viewerId, String targetId, int score) {
+        this.id = key(viewerId, targetId);
+        this.viewerId = viewerId;
+        this.targetId = targetId;
+        this.score = score;
+        this.computedAt = LocalDateTime.now();
+    }
+
+    public static String key(String viewerId, String targetId) {
+        return viewerId + ":" + targetId;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getViewerId() { return viewerId; }
+    public void setViewerId(String viewerId) { this.viewerId = viewerId; }
+
+    public String getTargetId() { return targetId; }
+    public void setTargetId(String targetId) { this.targetId = targetId; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
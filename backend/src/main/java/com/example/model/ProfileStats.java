@@ -8,6 +8,7 @@ public class ProfileStats {
     private double averageRating = 0.0;
     private int totalRatings = 0;
     private int matchPercentage = 0;
+    private int totalMessages = 0;
 
     public int getTotalSwaps() { return totalSwaps; }
     public void setTotalSwaps(int totalSwaps) { this.totalSwaps = totalSwaps; }
@@ -26,4 +27,7 @@ public class ProfileStats {
 
     public int getMatchPercentage() { return matchPercentage; }
     public void setMatchPercentage(int matchPercentage) { this.matchPercentage = matchPercentage; }
+
+    public int getTotalMessages() { return totalMessages; }
+    public void setTotalMessages(int totalMessages) { this.totalMessages = totalMessages; }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// An admin report computed off-thread. A completed job doubles as the cached result for
+// its type until expiresAt, after which the TTL index removes the document. While queued
+// or running the job belongs to the instance named by owner, which keeps renewing its
+// lease; inFlightKey is set to the type only then, so its unique index allows a single
+// unfinished job per type across all instances.
+@Document(collection = "report_jobs")
+@CompoundIndex(name = "type_status_idx", def = "{'type': 1, 'status': 1, 'completedAt': -1}")
+public class ReportJob {
+    public enum Type { USER_ACTIVITY, SWAP_STATS, FEEDBACK }
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private String id;
+
+    private Type type;
+    private Status status;
+    private String requestedBy;
+    private Map<String, Object> result;
+    private String error;
+    private long durationMs;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String owner;
+    private LocalDateTime leaseExpiresAt;
+
+    // Unset once finished; sparse so only unfinished jobs take part in the unique index
+    @Indexed(unique = true, sparse = true)
+    private String inFlightKey;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    public ReportJob() {
+        this.status = Status.QUEUED;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public ReportJob(Type type, String requestedBy) {
+        this();
+        this.type = type;
+        this.requestedBy = requestedBy;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(String requestedBy) { this.requestedBy = requestedBy; }
+    public Map<String, Object> getResult() { return result; }
+    public void setResult(Map<String, Object> result) { this.result = result; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    public String getInFlightKey() { return inFlightKey; }
+    public void setInFlightKey(String inFlightKey) { this.inFlightKey = inFlightKey; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,11 +1,16 @@
 package com.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotBlank;
 
 public class Skill {
     @NotBlank(message = "Skill name is required")
     private String name;
     private SkillLevel level;
+    // Normalized name, resolved once when the profile is written
+    @JsonIgnore
+    private String key;
 
     public Skill() {}
 
@@ -19,4 +24,7 @@ public class Skill {
 
     public SkillLevel getLevel() { return level; }
     public void setLevel(SkillLevel level) { this.level = level; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
 }
@@ -4,9 +4,12 @@ package com.example.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "swap_requests")
 public class SwapRequest {
     @Id
@@ -15,9 +18,15 @@ public class SwapRequest {
     private String requestedUserId;
     private String requesterSkill;
     private String requestedSkill;
+    // Normalized skill names, resolved once when the request is created
+    @JsonIgnore
+    private String requesterSkillKey;
+    @JsonIgnore
+    private String requestedSkillKey;
     private String message;
     private SwapStatus status;
     private boolean isSuperSwap;
+    @Indexed
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime deadline; // Deadline for completing the swap
@@ -45,6 +54,10 @@ public class SwapRequest {
     public void setRequesterSkill(String requesterSkill) { this.requesterSkill = requesterSkill; }
     public String getRequestedSkill() { return requestedSkill; }
     public void setRequestedSkill(String requestedSkill) { this.requestedSkill = requestedSkill; }
+    public String getRequesterSkillKey() { return requesterSkillKey; }
+    public void setRequesterSkillKey(String requesterSkillKey) { this.requesterSkillKey = requesterSkillKey; }
+    public String getRequestedSkillKey() { return requestedSkillKey; }
+    public void setRequestedSkillKey(String requestedSkillKey) { this.requestedSkillKey = requestedSkillKey; }
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     public SwapStatus getStatus() { return status; }
@@ -0,0 +1,43 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Per-user token cut-off. Tokens issued before notBefore (epoch seconds) are rejected;
+// a blocked user (banned or deactivated) has no valid tokens at all.
+@Document(collection = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    private String userId;
+
+    private long notBefore;
+    private boolean blocked;
+    private String reason;
+    private LocalDateTime updatedAt;
+
+    public TokenRevocation() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public TokenRevocation(String userId, long notBefore, boolean blocked, String reason) {
+        this();
+        this.userId = userId;
+        this.notBefore = notBefore;
+        this.blocked = blocked;
+        this.reason = reason;
+    }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public long getNotBefore() { return notBefore; }
+    public void setNotBefore(long notBefore) { this.notBefore = notBefore; }
+    public boolean isBlocked() { return blocked; }
+    public void setBlocked(boolean blocked) { this.blocked = blocked; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
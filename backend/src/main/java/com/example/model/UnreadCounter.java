@@ -0,0 +1,43 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Unread chat messages of one user, in total and per swap conversation. Kept current with
+// $inc on send and on read, so polling the unread count is a single document read.
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+
+    @Id
+    private String userId;
+
+    private long total;
+    private Map<String, Long> bySwap = new HashMap<>();
+    private LocalDateTime rebuiltAt;
+
+    public UnreadCounter() {}
+
+    public UnreadCounter(String userId, Map<String, Long> bySwap) {
+        this.userId = userId;
+        this.bySwap = new HashMap<>(bySwap);
+        this.total = bySwap.values().stream().mapToLong(Long::longValue).sum();
+        this.rebuiltAt = LocalDateTime.now();
+    }
+
+    public long getUnread(String swapRequestId) {
+        return bySwap == null ? 0 : Math.max(0, bySwap.getOrDefault(swapRequestId, 0L));
+    }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public long getTotal() { return Math.max(0, total); }
+    public void setTotal(long total) { this.total = total; }
+    public Map<String, Long> getBySwap() { return bySwap; }
+    public void setBySwap(Map<String, Long> bySwap) { this.bySwap = bySwap; }
+    public LocalDateTime getRebuiltAt() { return rebuiltAt; }
+    public void setRebuiltAt(LocalDateTime rebuiltAt) { this.rebuiltAt = rebuiltAt; }
+}
@@ -5,9 +5,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
+@CompoundIndexes({
+    // Top-K lists in the admin reports
+    @CompoundIndex(name = "profile_views_idx", def = "{'stats.profileViews': -1}"),
+    @CompoundIndex(name = "average_rating_idx", def = "{'stats.averageRating': -1}")
+})
 public class User {
     @Id
     private String id;
@@ -5,6 +5,9 @@ import java.time.LocalDateTime;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+// One award per (userId, badgeId), enforced by the unique user_badge_idx. That index is
+// created by UserBadgeIndexInitializer after existing duplicates are removed rather than
+// declared here, since auto-index-creation would fail startup on a collection with duplicates.
 @Document(collection = "user_badges")
 public class UserBadge {
     @Id
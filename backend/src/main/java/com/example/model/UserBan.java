@@ -3,6 +3,7 @@ package com.example.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -19,6 +20,7 @@ public class UserBan {
     private User bannedBy;
     
     private String reason;
+    @Indexed
     private LocalDateTime bannedAt;
     private LocalDateTime unbannedAt;
     
@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.AdminCounters;
+
+@Repository
+public interface AdminCountersRepository extends MongoRepository<AdminCounters, String>, AdminCountersRepositoryCustom {
+}
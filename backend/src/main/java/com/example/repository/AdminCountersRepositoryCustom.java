@@ -0,0 +1,9 @@
+package com.example.repository;
+
+import java.util.Map;
+
+public interface AdminCountersRepositoryCustom {
+
+    // Single upserting $inc on the global counters document; keys are field paths
+    void increment(Map<String, Long> deltas);
+}
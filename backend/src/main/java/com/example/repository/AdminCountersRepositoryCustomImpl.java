@@ -0,0 +1,27 @@
+package com.example.repository;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.AdminCounters;
+
+public class AdminCountersRepositoryCustomImpl implements AdminCountersRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        mongoTemplate.upsert(new Query(Criteria.where("id").is(AdminCounters.GLOBAL_ID)), update, AdminCounters.class);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mongodb.client.MongoCursor;
+
+/**
+ * Raw document cursors for admin exports. Rows are read as BSON documents, never
+ * mapped to entities or resolved through DBRefs, and only one cursor batch is held
+ * in memory at a time.
+ */
+@Repository
+public class AdminExportRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public MongoCursor<Document> openCursor(Class<?> entityClass, Document filter, Document projection,
+                                            Document sort, int batchSize) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+                .find(filter)
+                .projection(projection)
+                .sort(sort)
+                .batchSize(batchSize)
+                .iterator();
+    }
+}
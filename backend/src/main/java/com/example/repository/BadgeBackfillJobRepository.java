@@ -0,0 +1,16 @@
+package com.example.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.BadgeBackfillJob;
+
+@Repository
+public interface BadgeBackfillJobRepository extends MongoRepository<BadgeBackfillJob, String> {
+
+    Optional<BadgeBackfillJob> findFirstByOrderByStartedAtDesc();
+
+    Optional<BadgeBackfillJob> findFirstByStatusOrderByStartedAtDesc(BadgeBackfillJob.Status status);
+}
@@ -0,0 +1,57 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.example.model.ChatMessage;
+
+public interface ChatMessageRepositoryCustom {
+
+    // Ids pulled out of a message still stored with DBRefs
+    record LegacyChatMessage(String id, String senderId, String receiverId, String swapRequestId, Date createdAt) {}
+
+    /**
+     * Next batch of messages in the old DBRef layout, in _id order. The scope narrows the
+     * batch to one conversation or participant; null means the whole collection.
+     */
+    List<LegacyChatMessage> findLegacyMessages(LegacyScope scope, String scopeId, int limit);
+
+    /** Rewrites the batch to the id-based layout; returns the number of messages changed. */
+    int rewriteLegacyMessages(List<LegacyChatMessage> messages, Map<String, String> senderNames);
+
+    enum LegacyScope { SWAP_REQUEST, PARTICIPANT }
+
+    // Latest message and unread count of one swap conversation, as seen by one user
+    record ConversationRow(String swapRequestId, ChatMessage lastMessage, long unreadCount) {}
+
+    /**
+     * Keyset page of a swap conversation relative to the (createdAt, id) position, newest
+     * first when older is true and oldest first otherwise. A null position starts from the
+     * newest (or oldest) end.
+     */
+    List<ChatMessage> findConversationPage(String swapRequestId, LocalDateTime createdAt, String id,
+                                           boolean older, int limit);
+
+    /** Messages a user sent or received, newest first, strictly before the position. */
+    List<ChatMessage> findUserMessagesBefore(String userId, LocalDateTime createdAt, String id, int limit);
+
+    /** One row per swap the user has messages in, most recently active first. */
+    List<ConversationRow> findConversations(String userId, int limit);
+
+    /** Unread messages addressed to the user, counted per swap conversation. */
+    Map<String, Long> countUnreadBySwap(String receiverId);
+
+    /**
+     * Marks every unread message to the receiver in the conversation up to and including
+     * the (createdAt, id) position as read, in one updateMany; returns how many changed.
+     */
+    long markReadUpTo(String swapRequestId, String receiverId, LocalDateTime createdAt, String id);
+
+    /** Marks one message read if it is addressed to the receiver and still unread; returns it or null. */
+    ChatMessage markRead(String messageId, String receiverId);
+
+    /** Drops whichever of the named indexes still exist; returns the names dropped. */
+    List<String> dropIndexes(List<String> names);
+}
@@ -0,0 +1,199 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.ChatMessage;
+import com.mongodb.DBRef;
+
+public class ChatMessageRepositoryCustomImpl implements ChatMessageRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<LegacyChatMessage> findLegacyMessages(LegacyScope scope, String scopeId, int limit) {
+        // Every message written in the new layout has a senderId field, even if null
+        Document filter = new Document("senderId", new Document("$exists", false));
+        if (scope == LegacyScope.SWAP_REQUEST) {
+            filter.append("swapRequest.$id", refId(scopeId));
+        } else if (scope == LegacyScope.PARTICIPANT) {
+            filter.append("$or", List.of(
+                    new Document("sender.$id", refId(scopeId)),
+                    new Document("receiver.$id", refId(scopeId))));
+        }
+        Document projection = new Document("sender", 1).append("receiver", 1)
+                .append("swapRequest", 1).append("createdAt", 1);
+
+        List<LegacyChatMessage> messages = new ArrayList<>();
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(ChatMessage.class))
+                .find(filter).projection(projection).sort(new Document("_id", 1)).limit(limit)) {
+            ObjectId id = row.getObjectId("_id");
+            Date createdAt = row.getDate("createdAt");
+            messages.add(new LegacyChatMessage(id.toHexString(), idOf(row.get("sender")), idOf(row.get("receiver")),
+                    idOf(row.get("swapRequest")), createdAt != null ? createdAt : id.getDate()));
+        }
+        return messages;
+    }
+
+    @Override
+    public int rewriteLegacyMessages(List<LegacyChatMessage> messages, Map<String, String> senderNames) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class);
+        for (LegacyChatMessage message : messages) {
+            // Guarded on the old layout so a concurrent rewrite of the same message is a no-op
+            Query query = new Query(Criteria.where("_id").is(new ObjectId(message.id())).and("senderId").exists(false));
+            Update update = new Update()
+                    .set("senderId", message.senderId())
+                    .set("senderName", senderNames.get(message.senderId()))
+                    .set("receiverId", message.receiverId())
+                    .set("swapRequestId", message.swapRequestId())
+                    .set("createdAt", message.createdAt())
+                    .unset("sender")
+                    .unset("receiver")
+                    .unset("swapRequest");
+            bulk.updateOne(query, update);
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public List<ChatMessage> findConversationPage(String swapRequestId, LocalDateTime createdAt, String id,
+                                                  boolean older, int limit) {
+        Criteria criteria = Criteria.where("swapRequestId").is(swapRequestId);
+        if (createdAt != null) {
+            criteria = criteria.andOperator(keyset(createdAt, id, older));
+        }
+        Sort.Direction direction = older ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = new Query(criteria).with(Sort.by(direction, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatMessage> findUserMessagesBefore(String userId, LocalDateTime createdAt, String id, int limit) {
+        Criteria participant = new Criteria().orOperator(
+                Criteria.where("senderId").is(userId), Criteria.where("receiverId").is(userId));
+        Criteria criteria = createdAt != null
+                ? new Criteria().andOperator(participant, keyset(createdAt, id, true))
+                : participant;
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    @Override
+    public List<ConversationRow> findConversations(String userId, int limit) {
+        Document unread = new Document("$cond", List.of(
+                new Document("$and", List.of(
+                        new Document("$eq", List.of("$receiverId", userId)),
+                        new Document("$eq", List.of("$isRead", false)))),
+                1, 0));
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("swapRequestId", new Document("$ne", null))
+                        .append("$or", List.of(new Document("senderId", userId), new Document("receiverId", userId)))),
+                // Both participant indexes deliver (createdAt, _id) order, so this is a merge, not a sort
+                new Document("$sort", new Document("createdAt", -1).append("_id", -1)),
+                new Document("$group", new Document("_id", "$swapRequestId")
+                        .append("lastMessage", new Document("$first", "$$ROOT"))
+                        .append("unreadCount", new Document("$sum", unread))),
+                new Document("$sort", new Document("lastMessage.createdAt", -1)),
+                new Document("$limit", limit));
+
+        List<ConversationRow> rows = new ArrayList<>();
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(ChatMessage.class))
+                .aggregate(pipeline).allowDiskUse(true)) {
+            ChatMessage lastMessage = mongoTemplate.getConverter().read(ChatMessage.class, row.get("lastMessage", Document.class));
+            rows.add(new ConversationRow(row.getString("_id"), lastMessage, ((Number) row.get("unreadCount")).longValue()));
+        }
+        return rows;
+    }
+
+    @Override
+    public Map<String, Long> countUnreadBySwap(String receiverId) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("receiverId", receiverId).append("isRead", false)
+                        .append("swapRequestId", new Document("$ne", null))),
+                new Document("$group", new Document("_id", "$swapRequestId").append("count", new Document("$sum", 1))));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(ChatMessage.class))
+                .aggregate(pipeline)) {
+            counts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public long markReadUpTo(String swapRequestId, String receiverId, LocalDateTime createdAt, String id) {
+        Criteria upTo = new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lte(new ObjectId(id)));
+        Query query = new Query(Criteria.where("swapRequestId").is(swapRequestId)
+                .and("receiverId").is(receiverId)
+                .and("isRead").is(false)
+                .andOperator(upTo));
+        return mongoTemplate.updateMulti(query, new Update().set("isRead", true), ChatMessage.class).getModifiedCount();
+    }
+
+    @Override
+    public ChatMessage markRead(String messageId, String receiverId) {
+        Query query = new Query(Criteria.where("id").is(messageId)
+                .and("receiverId").is(receiverId)
+                .and("isRead").is(false));
+        return mongoTemplate.findAndModify(query, new Update().set("isRead", true), ChatMessage.class);
+    }
+
+    // Strictly before (or after) the (createdAt, _id) position
+    private static Criteria keyset(LocalDateTime createdAt, String id, boolean before) {
+        ObjectId objectId = new ObjectId(id);
+        if (before) {
+            return new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    Criteria.where("createdAt").is(createdAt).and("_id").lt(objectId));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").gt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").gt(objectId));
+    }
+
+    private static Object refId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static String idOf(Object ref) {
+        if (!(ref instanceof DBRef dbRef)) {
+            return null;
+        }
+        Object id = dbRef.getId();
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    @Override
+    public List<String> dropIndexes(List<String> names) {
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessage.class);
+        List<String> dropped = new ArrayList<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            if (names.contains(info.getName())) {
+                indexOps.dropIndex(info.getName());
+                dropped.add(info.getName());
+            }
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.MatchScore;
+
+@Repository
+public interface MatchScoreRepository extends MongoRepository<MatchScore, String> {
+
+    List<MatchScore> findByViewerIdOrTargetId(String viewerId, String targetId);
+
+    List<MatchScore> findByTargetId(String targetId);
+}
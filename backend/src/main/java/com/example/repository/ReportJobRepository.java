@@ -0,0 +1,21 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.ReportJob;
+
+@Repository
+public interface ReportJobRepository extends MongoRepository<ReportJob, String>, ReportJobRepositoryCustom {
+
+    // The TTL monitor runs about once a minute, so freshness is checked on read as well
+    Optional<ReportJob> findFirstByTypeAndStatusAndExpiresAtAfterOrderByCompletedAtDesc(
+            ReportJob.Type type, ReportJob.Status status, LocalDateTime now);
+
+    Optional<ReportJob> findFirstByTypeAndStatusInOrderByCreatedAtDesc(
+            ReportJob.Type type, Collection<ReportJob.Status> statuses);
+}
@@ -0,0 +1,20 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.model.ReportJob;
+
+// Lease bookkeeping for unfinished report jobs; every write is conditional so it cannot
+// undo a concurrent change made by the owning instance
+public interface ReportJobRepositoryCustom {
+
+    // False once the job finished or belongs to another instance
+    boolean renewLease(String jobId, String owner, LocalDateTime leaseExpiresAt);
+
+    // Queued or running jobs whose lease ran out, or that predate leases
+    List<ReportJob> findExpiredLeases(LocalDateTime now);
+
+    // Fails the job only if it is still unfinished and its lease is still expired
+    boolean failExpiredJob(String jobId, LocalDateTime now, String error, LocalDateTime expiresAt);
+}
@@ -0,0 +1,52 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.ReportJob;
+
+public class ReportJobRepositoryCustomImpl implements ReportJobRepositoryCustom {
+
+    private static final List<ReportJob.Status> IN_FLIGHT = List.of(ReportJob.Status.QUEUED, ReportJob.Status.RUNNING);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean renewLease(String jobId, String owner, LocalDateTime leaseExpiresAt) {
+        Query query = new Query(Criteria.where("id").is(jobId)
+                .and("owner").is(owner)
+                .and("status").in(IN_FLIGHT));
+        return mongoTemplate.updateFirst(query, new Update().set("leaseExpiresAt", leaseExpiresAt), ReportJob.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<ReportJob> findExpiredLeases(LocalDateTime now) {
+        return mongoTemplate.find(new Query(expired(now)), ReportJob.class);
+    }
+
+    @Override
+    public boolean failExpiredJob(String jobId, LocalDateTime now, String error, LocalDateTime expiresAt) {
+        Query query = new Query(new Criteria().andOperator(Criteria.where("id").is(jobId), expired(now)));
+        Update update = new Update()
+                .set("status", ReportJob.Status.FAILED)
+                .set("error", error)
+                .set("completedAt", now)
+                .set("expiresAt", expiresAt)
+                .unset("inFlightKey");
+        return mongoTemplate.updateFirst(query, update, ReportJob.class).getModifiedCount() > 0;
+    }
+
+    private static Criteria expired(LocalDateTime now) {
+        return Criteria.where("status").in(IN_FLIGHT).orOperator(
+                Criteria.where("leaseExpiresAt").lt(now),
+                Criteria.where("leaseExpiresAt").exists(false));
+    }
+}
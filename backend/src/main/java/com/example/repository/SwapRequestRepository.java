@@ -28,10 +28,6 @@ public interface SwapRequestRepository extends MongoRepository<SwapRequest, Stri
     List<SwapRequest> findByRequesterIdAndStatus(String requesterId, SwapStatus status);
     
     List<SwapRequest> findByStatus(SwapStatus status);
-}
-
-
-
-
-
 
+    List<SwapRequest> findTop20ByOrderByCreatedAtDesc();
+}
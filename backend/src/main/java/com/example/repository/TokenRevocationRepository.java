@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.TokenRevocation;
+
+@Repository
+public interface TokenRevocationRepository extends MongoRepository<TokenRevocation, String> {
+}
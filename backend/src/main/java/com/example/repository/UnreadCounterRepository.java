@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.UnreadCounter;
+
+@Repository
+public interface UnreadCounterRepository extends MongoRepository<UnreadCounter, String>, UnreadCounterRepositoryCustom {
+}
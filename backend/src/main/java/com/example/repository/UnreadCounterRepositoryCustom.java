@@ -0,0 +1,13 @@
+package com.example.repository;
+
+import com.example.model.UnreadCounter;
+
+public interface UnreadCounterRepositoryCustom {
+
+    /**
+     * Adds delta to the user's total and to the conversation's count and returns the
+     * updated counter, or null when the user has no counter yet (it must be rebuilt
+     * from the messages rather than started from zero).
+     */
+    UnreadCounter adjust(String userId, String swapRequestId, long delta);
+}
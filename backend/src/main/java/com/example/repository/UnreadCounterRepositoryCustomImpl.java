@@ -0,0 +1,25 @@
+package com.example.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.UnreadCounter;
+
+public class UnreadCounterRepositoryCustomImpl implements UnreadCounterRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public UnreadCounter adjust(String userId, String swapRequestId, long delta) {
+        Update update = new Update()
+                .inc("total", delta)
+                .inc("bySwap." + swapRequestId, delta);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("userId").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(true), UnreadCounter.class);
+    }
+}
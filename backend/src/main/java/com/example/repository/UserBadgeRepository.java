@@ -10,9 +10,13 @@ import org.springframework.stereotype.Repository;
 import com.example.model.UserBadge;
 
 @Repository
-public interface UserBadgeRepository extends MongoRepository<UserBadge, String> {
+public interface UserBadgeRepository extends MongoRepository<UserBadge, String>, UserBadgeRepositoryCustom {
     
     List<UserBadge> findByUserIdAndIsActiveTrue(String userId);
+
+    // Every award of the user, revoked ones included, with only badgeId loaded
+    @Query(value = "{'userId': ?0}", fields = "{'badgeId': 1}")
+    List<UserBadge> findAwardedBadgeIds(String userId);
     
     @Query("{'userId': ?0, 'badgeId': ?1, 'isActive': true}")
     Optional<UserBadge> findByUserIdAndBadgeId(String userId, String badgeId);
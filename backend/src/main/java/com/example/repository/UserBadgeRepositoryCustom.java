@@ -0,0 +1,19 @@
+package com.example.repository;
+
+import java.util.List;
+
+import com.example.model.UserBadge;
+
+public interface UserBadgeRepositoryCustom {
+
+    // Unordered bulk upsert keyed on (userId, badgeId); existing awards, revoked ones included,
+    // are left untouched. Returns how many awards were newly inserted.
+    int upsertAwards(List<UserBadge> awards);
+
+    // Keeps one award per (userId, badgeId): a revoked one if there is any, so revocations
+    // stick, otherwise the earliest. Returns how many documents were deleted.
+    int removeDuplicateAwards();
+
+    // Creates the unique (userId, badgeId) index, replacing an older non-unique one
+    void ensureUniqueAwardIndex();
+}
@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.UserBadge;
+
+public class UserBadgeRepositoryCustomImpl implements UserBadgeRepositoryCustom {
+    public static final String AWARD_INDEX = "user_badge_idx";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public int upsertAwards(List<UserBadge> awards) {
+        if (awards.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserBadge.class);
+        for (UserBadge award : awards) {
+            Query query = new Query(Criteria.where("userId").is(award.getUserId())
+                    .and("badgeId").is(award.getBadgeId()));
+            Update update = new Update()
+                    .setOnInsert("earnedAt", award.getEarnedAt())
+                    .setOnInsert("isActive", true)
+                    .setOnInsert("achievementContext", award.getAchievementContext());
+            bulk.upsert(query, update);
+        }
+        return bulk.execute().getUpserts().size();
+    }
+
+    @Override
+    public int removeDuplicateAwards() {
+        List<Document> pipeline = List.of(
+                // Revoked (isActive false) first, then oldest, so the kept award is the first id
+                new Document("$sort", new Document("isActive", 1).append("earnedAt", 1).append("_id", 1)),
+                new Document("$group", new Document("_id", new Document("userId", "$userId").append("badgeId", "$badgeId"))
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1))));
+
+        List<Object> duplicates = new ArrayList<>();
+        for (Document group : mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserBadge.class))
+                .aggregate(pipeline).allowDiskUse(true)) {
+            List<Object> ids = group.getList("ids", Object.class);
+            duplicates.addAll(ids.subList(1, ids.size()));
+        }
+        if (duplicates.isEmpty()) {
+            return 0;
+        }
+        return (int) mongoTemplate.remove(new Query(Criteria.where("_id").in(duplicates)), UserBadge.class)
+                .getDeletedCount();
+    }
+
+    @Override
+    public void ensureUniqueAwardIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(UserBadge.class);
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            if (AWARD_INDEX.equals(info.getName()) && !info.isUnique()) {
+                indexOps.dropIndex(AWARD_INDEX);
+            }
+        }
+        indexOps.ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("badgeId", Sort.Direction.ASC)
+                .unique()
+                .named(AWARD_INDEX));
+    }
+}
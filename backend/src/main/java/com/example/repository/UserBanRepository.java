@@ -20,4 +20,6 @@ public interface UserBanRepository extends MongoRepository<UserBan, String> {
     List<UserBan> findByUserIdOrderByBannedAtDesc(String userId);
     
     List<UserBan> findAllByOrderByBannedAtDesc();
-} 
\ No newline at end of file
+
+    long countByIsActiveTrue();
+}
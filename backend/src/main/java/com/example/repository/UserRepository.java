@@ -1,7 +1,10 @@
 package com.example.repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,7 +12,15 @@ import org.springframework.stereotype.Repository;
 import com.example.model.User;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
+    // Projection backing UserSummaryDto
+    String SUMMARY_FIELDS = "{'name': 1, 'username': 1, 'location': 1, 'tagline': 1, 'availability': 1, "
+            + "'offeredSkills': 1, 'wantedSkills': 1, 'stats.averageRating': 1, 'stats.totalRatings': 1, "
+            + "'stats.completedSwaps': 1}";
+
+    // Admin report rows: no password hash, photo or skills
+    String REPORT_FIELDS = "{'name': 1, 'username': 1, 'email': 1, 'location': 1, 'active': 1, 'banned': 1, 'stats': 1}";
+
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     Optional<User> findByUsernameOrEmail(String username, String email);
@@ -18,23 +29,54 @@ public interface UserRepository extends MongoRepository<User, String> {
     List<User> findByIsPublicTrueAndActiveTrue();
     List<User> findByRolesContaining(String role);
 
-    @Query("{'offeredSkills.name': {$regex: ?0, $options: 'i'}, 'isPublic': true, 'active': true}")
-    List<User> findByOfferedSkillsContainingIgnoreCase(String skill);
+    @Query("{'isPublic': true, 'active': true, 'banned': false}")
+    List<User> findByIsPublicTrueAndActiveTrueAndBannedFalse();
 
-    @Query("{'wantedSkills': {$regex: ?0, $options: 'i'}, 'isPublic': true, 'active': true}")
-    List<User> findByWantedSkillsContainingIgnoreCase(String skill);
+    long countByActiveTrueAndBannedFalse();
 
-    @Query("{'location': {$regex: ?0, $options: 'i'}, 'isPublic': true, 'active': true}")
-    List<User> findByLocationContainingIgnoreCase(String location);
+    // Only the fields the in-memory indexes need, so startup doesn't pull photos and password hashes
+    @Query(value = "{'isPublic': true, 'active': true, 'banned': {$ne: true}}",
+           fields = "{'name': 1, 'username': 1, 'offeredSkills': 1, 'wantedSkills': 1, 'location': 1, "
+                   + "'isPublic': 1, 'active': 1, 'banned': 1}")
+    List<User> findIndexableUsers();
 
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'isPublic': true, 'active': true, 'banned': false}")
-    List<User> findByNameContainingIgnoreCase(String name);
+    // Fields used by match scoring
+    @Query(value = "{'_id': {$in: ?0}, 'isPublic': true, 'active': true}",
+           fields = "{'offeredSkills': 1, 'wantedSkills': 1, 'location': 1, 'stats': 1}")
+    List<User> findMatchFieldsByIdIn(Collection<String> ids);
 
-    @Query("{'username': {$regex: ?0, $options: 'i'}, 'isPublic': true, 'active': true, 'banned': false}")
-    List<User> findByUsernameContainingIgnoreCase(String username);
+    // Same fields without the visibility filter, for recomputing stored scores
+    @Query(value = "{'_id': {$in: ?0}}",
+           fields = "{'offeredSkills': 1, 'wantedSkills': 1, 'location': 1, 'stats': 1}")
+    List<User> findScoringFieldsByIdIn(Collection<String> ids);
 
-    @Query("{'isPublic': true, 'active': true, 'banned': false}")
-    List<User> findByIsPublicTrueAndActiveTrueAndBannedFalse();
+    @Query(value = "{'_id': {$in: ?0}}", fields = "{'stats.profileViews': 1}")
+    List<User> findProfileViewsByIdIn(Collection<String> ids);
 
-    long countByActiveTrueAndBannedFalse();
+    @Query(value = "{'_id': ?0}", fields = "{'stats': 1}")
+    Optional<User> findStatsById(String id);
+
+    // Just enough to render a swap or call participant
+    @Query(value = "{'_id': {$in: ?0}}",
+           fields = "{'name': 1, 'username': 1, 'profilePhoto': 1, 'location': 1}")
+    List<User> findParticipantsByIdIn(Collection<String> ids);
+
+    @Query(value = "{'_id': {$in: ?0}}", fields = SUMMARY_FIELDS)
+    List<User> findSummariesByIdIn(Collection<String> ids);
+
+    // Ids of accounts whose tokens must no longer authenticate
+    @Query(value = "{$or: [{'banned': true}, {'active': false}]}", fields = "{'_id': 1}")
+    List<User> findRevokedUserIds();
+
+    // Top-K for reports; the Pageable carries the sort on an indexed stats field
+    @Query(value = "{}", fields = REPORT_FIELDS)
+    List<User> findReportRows(Pageable pageable);
+
+    @Query(value = "{'stats.averageRating': {$gt: 0}}", fields = REPORT_FIELDS)
+    List<User> findRatedReportRows(Pageable pageable);
+
+    // Keyset pages ordered by _id; pass a Pageable sorted by id with page 0
+    @Query(value = "{'isPublic': true, 'active': true, 'banned': {$ne: true}, '_id': {$gt: ?0, $ne: ?1}}",
+           fields = SUMMARY_FIELDS)
+    List<User> findPublicSummariesAfter(ObjectId after, ObjectId excludedId, Pageable pageable);
 }
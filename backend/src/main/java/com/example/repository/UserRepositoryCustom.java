@@ -0,0 +1,37 @@
+package com.example.repository;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.example.model.User;
+
+// MongoTemplate operations on users: field-level updates that never rewrite the whole document, and bulk scans
+public interface UserRepositoryCustom {
+
+    // Each returns false when no user with that id exists
+    boolean incrementProfileViews(String userId, int delta);
+
+    // One unordered bulkWrite of $inc operations, keyed by user id
+    void incrementProfileViews(Map<String, Integer> deltas);
+
+    boolean incrementCompletedSwaps(String userId);
+
+    boolean recordRating(String userId, double averageRating);
+
+    boolean incrementMessagesSent(String userId);
+
+    // $set of the user-editable profile fields, copied from the given user; stats and
+    // account flags are left alone. Each returns the updated user, or null if there is none
+    User updateProfileFields(String userId, User profile);
+
+    User setBanned(String userId, boolean banned);
+
+    User removeOfferedSkill(String userId, String skillName);
+
+    // Every user after the given id (null for the start) in _id order, with only id and stats loaded
+    Stream<User> streamStatsAfter(String afterId, int batchSize);
+
+    // One $facet pass over users: "activity" (total/active/banned counts) and
+    // "feedback" (average rating, total ratings, users with ratings)
+    Map<String, Object> aggregateReportStats();
+}
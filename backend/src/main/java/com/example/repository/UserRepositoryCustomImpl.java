@@ -0,0 +1,146 @@
+package com.example.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.model.User;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean incrementProfileViews(String userId, int delta) {
+        return update(userId, new Update().inc("stats.profileViews", delta));
+    }
+
+    @Override
+    public void incrementProfileViews(Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        deltas.forEach((userId, delta) ->
+                bulk.updateOne(byId(userId), new Update().inc("stats.profileViews", delta)));
+        bulk.execute();
+    }
+
+    @Override
+    public boolean incrementCompletedSwaps(String userId) {
+        return update(userId, new Update()
+                .inc("stats.totalSwaps", 1)
+                .inc("stats.completedSwaps", 1));
+    }
+
+    @Override
+    public boolean recordRating(String userId, double averageRating) {
+        return update(userId, new Update()
+                .inc("stats.totalRatings", 1)
+                .set("stats.averageRating", averageRating));
+    }
+
+    @Override
+    public boolean incrementMessagesSent(String userId) {
+        return update(userId, new Update().inc("stats.totalMessages", 1));
+    }
+
+    @Override
+    public User updateProfileFields(String userId, User profile) {
+        return modify(userId, new Update()
+                .set("name", profile.getName())
+                .set("location", profile.getLocation())
+                .set("tagline", profile.getTagline())
+                .set("isPublic", profile.isPublic())
+                .set("offeredSkills", profile.getOfferedSkills())
+                .set("wantedSkills", profile.getWantedSkills())
+                .set("availability", profile.getAvailability())
+                .set("profilePhoto", profile.getProfilePhoto()));
+    }
+
+    @Override
+    public User setBanned(String userId, boolean banned) {
+        return modify(userId, new Update().set("banned", banned));
+    }
+
+    @Override
+    public User removeOfferedSkill(String userId, String skillName) {
+        return modify(userId, new Update().pull("offeredSkills", new Document("name", skillName)));
+    }
+
+    @Override
+    public Stream<User> streamStatsAfter(String afterId, int batchSize) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(new ObjectId(afterId)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(batchSize);
+        query.fields().include("stats");
+        return mongoTemplate.stream(query, User.class);
+    }
+
+    @Override
+    public Map<String, Object> aggregateReportStats() {
+        Document activity = new Document("$group", new Document("_id", null)
+                .append("totalUsers", new Document("$sum", 1))
+                .append("activeUsers", countIf(new Document("$and", List.of(
+                        new Document("$eq", List.of("$active", true)),
+                        new Document("$ne", List.of("$banned", true))))))
+                .append("bannedUsers", countIf(new Document("$eq", List.of("$banned", true)))));
+        Document feedback = new Document("$group", new Document("_id", null)
+                .append("averageRating", new Document("$avg", new Document("$ifNull", List.of("$stats.averageRating", 0.0))))
+                .append("totalRatings", new Document("$sum", new Document("$ifNull", List.of("$stats.totalRatings", 0))))
+                .append("usersWithRatings", countIf(new Document("$gt", List.of("$stats.totalRatings", 0)))));
+        Document facet = new Document("$facet", new Document("activity", List.of(activity))
+                .append("feedback", List.of(feedback)));
+
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .aggregate(List.of(facet))
+                .first();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activity", firstOrEmpty(result, "activity"));
+        stats.put("feedback", firstOrEmpty(result, "feedback"));
+        return stats;
+    }
+
+    private static Document countIf(Document condition) {
+        return new Document("$sum", new Document("$cond", List.of(condition, 1, 0)));
+    }
+
+    // A $group over an empty collection yields no document at all
+    private static Document firstOrEmpty(Document result, String facet) {
+        List<Document> rows = result == null ? List.of() : result.getList(facet, Document.class, List.of());
+        if (rows.isEmpty()) {
+            return new Document();
+        }
+        Document row = rows.get(0);
+        row.remove("_id");
+        return row;
+    }
+
+    private boolean update(String userId, Update update) {
+        return mongoTemplate.updateFirst(byId(userId), update, User.class).getMatchedCount() > 0;
+    }
+
+    private User modify(String userId, Update update) {
+        return mongoTemplate.findAndModify(byId(userId), update,
+                FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    private static Query byId(String userId) {
+        return new Query(Criteria.where("id").is(userId));
+    }
+}
@@ -5,10 +5,14 @@ import com.example.service.UserPrincipal;
 import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.stream.Collectors;
 import java.util.List;
@@ -23,6 +27,9 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         List<String> roles = userPrincipal.getAuthorities().stream()
@@ -31,6 +38,7 @@ public class JwtUtils {
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .claim("userId", userPrincipal.getId())
+                .claim("email", userPrincipal.getEmail())
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
@@ -54,10 +62,24 @@ public class JwtUtils {
                 .get("userId", String.class);
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and expiry once and returns the claims, or null when the
+     * token is not valid. Callers should read everything they need from the result
+     * rather than parsing the token again. Repeat tokens are answered from the
+     * verified-token cache without another signature check.
+     */
+    public Claims parseValidClaims(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            return null;
+        }
+        Claims cached = verifiedTokenCache.get(authToken);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
+            verifiedTokenCache.put(authToken, claims);
+            return claims;
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -69,7 +91,25 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
+        return null;
+    }
+
+    // Builds the principal from the token alone; null for tokens that predate the userId claim
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        if (userId == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (claims.get("roles") instanceof List<?> roles) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
+        }
+        return new UserPrincipal(userId, claims.getSubject(), claims.get("email", String.class), null, authorities);
+    }
 
-        return false;
+    public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
     }
-}
\ No newline at end of file
+}
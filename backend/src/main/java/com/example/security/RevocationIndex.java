@@ -0,0 +1,146 @@
+package com.example.security;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserAccessChangedEvent;
+import com.example.model.TokenRevocation;
+import com.example.model.User;
+import com.example.repository.TokenRevocationRepository;
+import com.example.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user "not-before" cut-offs for JWTs, so bans take effect on the next request while
+ * authentication stays stateless. Only users with a cut-off are held in memory; a token
+ * is rejected when it was issued before its user's cut-off, and every token of a blocked
+ * user is rejected. Bans and unbans made through the app apply at once; a periodic
+ * reconcile against the users collection blocks banned or inactive accounts changed
+ * outside the app, and drops cut-offs older than any token that could still be valid.
+ * Cut-offs are persisted in token_revocations and reloaded on startup.
+ */
+@Component
+public class RevocationIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RevocationIndex.class);
+
+    private static final long BLOCKED = Long.MAX_VALUE;
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    // userId -> cut-off in epoch seconds (the resolution of the iat claim)
+    private final Map<String, Long> notBefore = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("auth.revocations", notBefore, Map::size)
+                .description("Users with a token cut-off")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String userId, Date issuedAt) {
+        Long cutoff = notBefore.get(userId);
+        if (cutoff == null) {
+            return false;
+        }
+        // Without iat there is no way to place the token relative to the cut-off. iat is in whole
+        // seconds, so a token from the cut-off second itself may predate the change and is rejected too
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutoff;
+    }
+
+    @EventListener
+    public void onAccessChanged(UserAccessChangedEvent event) {
+        String reason = event.getChange().name();
+        switch (event.getChange()) {
+            case BANNED -> apply(new TokenRevocation(event.getUserId(), nowSeconds(), true, reason));
+            case UNBANNED -> apply(new TokenRevocation(event.getUserId(), nowSeconds(), false, reason));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:60000}",
+               initialDelayString = "${app.security.revocation.refresh-interval-ms:60000}")
+    public synchronized void reconcile() {
+        Map<String, TokenRevocation> persisted = new HashMap<>();
+        for (TokenRevocation revocation : revocationRepository.findAll()) {
+            persisted.put(revocation.getUserId(), revocation);
+        }
+        Set<String> revokedUsers = new HashSet<>();
+        for (User user : userRepository.findRevokedUserIds()) {
+            revokedUsers.add(user.getId());
+        }
+
+        long now = nowSeconds();
+        long oldestLiveToken = now - jwtExpirationMs / 1000;
+        int changed = 0;
+        for (String userId : revokedUsers) {
+            TokenRevocation existing = persisted.get(userId);
+            if (existing == null || !existing.isBlocked()) {
+                persisted.put(userId, apply(new TokenRevocation(userId, now, true, "RECONCILED")));
+                changed++;
+            }
+        }
+        for (TokenRevocation revocation : persisted.values().toArray(TokenRevocation[]::new)) {
+            String userId = revocation.getUserId();
+            if (revocation.isBlocked() && !revokedUsers.contains(userId)) {
+                persisted.put(userId, apply(new TokenRevocation(userId, now, false, "RECONCILED")));
+                changed++;
+            } else if (!revocation.isBlocked() && revocation.getNotBefore() < oldestLiveToken) {
+                // Every token issued before this cut-off has expired on its own
+                revocationRepository.deleteById(userId);
+                persisted.remove(userId);
+            }
+        }
+
+        notBefore.keySet().retainAll(persisted.keySet());
+        persisted.values().forEach(revocation -> notBefore.put(revocation.getUserId(), cutoffOf(revocation)));
+        if (changed > 0) {
+            logger.info("Reconciled {} token revocations with user status", changed);
+        }
+    }
+
+    private synchronized TokenRevocation apply(TokenRevocation revocation) {
+        revocation.setUpdatedAt(LocalDateTime.now());
+        TokenRevocation saved = revocationRepository.save(revocation);
+        notBefore.put(saved.getUserId(), cutoffOf(saved));
+        verifiedTokenCache.invalidateUser(saved.getUserId());
+        return saved;
+    }
+
+    private static long cutoffOf(TokenRevocation revocation) {
+        return revocation.isBlocked() ? BLOCKED : revocation.getNotBefore();
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.security;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.example.service.UserDetailsServiceImpl;
+import com.example.service.UserPrincipal;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Authenticates STOMP sessions from the "Authorization: Bearer" header of the CONNECT
+ * frame, using the same token checks as the HTTP filter. The session principal is named
+ * by username, which is what /user destinations are resolved against, so user messages
+ * reach every session of that user (on any node when the broker relay is in use).
+ * The token's user and issue time are kept with the session, so SEND and SUBSCRIBE are
+ * refused once the token is revoked (see also StompSessionRevoker).
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    public static final String USER_ID_ATTRIBUTE = "auth.userId";
+    public static final String ISSUED_AT_ATTRIBUTE = "auth.issuedAt";
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.SEND || accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            if (isRevoked(accessor.getSessionAttributes())) {
+                throw new MessagingException("Token has been revoked");
+            }
+            return message;
+        }
+        if (accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new MessagingException("Missing bearer token on STOMP CONNECT");
+        }
+        Claims claims = jwtUtils.parseValidClaims(header.substring(7));
+        if (claims == null) {
+            throw new MessagingException("Invalid token on STOMP CONNECT");
+        }
+        UserPrincipal principal = jwtUtils.getPrincipalFromClaims(claims);
+        if (principal == null) {
+            principal = (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (revocationIndex.isRevoked(principal.getId(), claims.getIssuedAt())) {
+            throw new MessagingException("Token has been revoked");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null) {
+            attributes.put(USER_ID_ATTRIBUTE, principal.getId());
+            attributes.put(ISSUED_AT_ATTRIBUTE, claims.getIssuedAt());
+        }
+        return message;
+    }
+
+    // Attributes of a session that never completed CONNECT carry no user; the broker rejects those itself
+    public boolean isRevoked(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null || !(sessionAttributes.get(USER_ID_ATTRIBUTE) instanceof String userId)) {
+            return false;
+        }
+        return revocationIndex.isRevoked(userId, (Date) sessionAttributes.get(ISSUED_AT_ATTRIBUTE));
+    }
+}
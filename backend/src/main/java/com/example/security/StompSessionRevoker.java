@@ -0,0 +1,64 @@
+package com.example.security;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.config.OutboundSessionBuffers;
+import com.example.event.UserAccessChangedEvent;
+
+/**
+ * Closes open STOMP sessions whose token has been revoked, so a banned user stops
+ * receiving /user pushes rather than keeping them until they disconnect. Sessions on
+ * this node are closed as soon as a ban is published here; a periodic check against the
+ * revocation index catches bans from other nodes and accounts deactivated outside the
+ * app once the index has reconciled them.
+ */
+@Component
+public class StompSessionRevoker {
+    private static final Logger logger = LoggerFactory.getLogger(StompSessionRevoker.class);
+
+    @Autowired
+    private OutboundSessionBuffers outboundSessionBuffers;
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @EventListener
+    public void onAccessChanged(UserAccessChangedEvent event) {
+        if (event.getChange() != UserAccessChangedEvent.Change.BANNED) {
+            return;
+        }
+        for (WebSocketSession session : outboundSessionBuffers.getSessions()) {
+            if (event.getUserId().equals(session.getAttributes().get(StompAuthChannelInterceptor.USER_ID_ATTRIBUTE))) {
+                close(session);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.revocation-check-interval-ms:30000}")
+    public void closeRevokedSessions() {
+        for (WebSocketSession session : outboundSessionBuffers.getSessions()) {
+            if (stompAuthChannelInterceptor.isRevoked(session.getAttributes())) {
+                close(session);
+            }
+        }
+    }
+
+    private void close(WebSocketSession session) {
+        logger.info("Closing WebSocket session {} of revoked user {}", session.getId(),
+                session.getAttributes().get(StompAuthChannelInterceptor.USER_ID_ATTRIBUTE));
+        try {
+            session.close(CloseStatus.POLICY_VIOLATION);
+        } catch (IOException e) {
+            logger.debug("Failed to close WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
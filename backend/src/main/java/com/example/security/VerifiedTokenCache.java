@@ -0,0 +1,118 @@
+package com.example.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by a SHA-256 digest
+ * of the whole compact token, so a hit needs the exact token that was verified and raw
+ * tokens are not kept in memory. An entry is only served until the token's own expiry,
+ * and all entries of a user can be dropped when the user is revoked.
+ * Bounded: once full, new tokens are verified normally but not cached until expired
+ * entries have been swept.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(Claims claims, String userId, long expiresAtMillis) {}
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.token-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.token-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("auth.token_cache.requests").tag("result", "hit")
+                .description("Verified-token cache lookups")
+                .register(meterRegistry);
+        misses = Counter.builder("auth.token_cache.requests").tag("result", "miss")
+                .description("Verified-token cache lookups")
+                .register(meterRegistry);
+        Gauge.builder("auth.token_cache.size", entries, Map::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /** Returns the cached claims for a token, or null if it has to be verified. */
+    public Claims get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = key(token);
+        Entry entry = key == null ? null : entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        String key = key(token);
+        if (!enabled || key == null || expiration == null || entries.size() >= maxSize) {
+            return;
+        }
+        entries.put(key, new Entry(claims, claims.get("userId", String.class), expiration.getTime()));
+    }
+
+    // Revocation hook: the user's tokens must be verified (and checked) again
+    public void invalidateUser(String userId) {
+        entries.values().removeIf(entry -> userId.equals(entry.userId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    // Null for unsigned or malformed tokens, which are never cached
+    private static String key(String token) {
+        int dot = token.lastIndexOf('.');
+        if (dot < 0 || dot == token.length() - 1) {
+            return null;
+        }
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.model.AdminCounters;
+import com.example.model.SwapStatus;
+import com.example.repository.AdminCountersRepository;
+import com.example.repository.FlaggedSkillRepository;
+import com.example.repository.PlatformAnnouncementRepository;
+import com.example.repository.SwapRequestRepository;
+import com.example.repository.UserBanRepository;
+import com.example.repository.UserRepository;
+
+/**
+ * Materialized admin dashboard counters. Write paths report what they changed and
+ * the counters document is adjusted with a single $inc, so the dashboard reads one
+ * document instead of scanning collections. A scheduled reconcile recounts from the
+ * source collections to correct any drift (missed writes, concurrent updates, data
+ * edited outside the app).
+ */
+@Service
+public class AdminCountersService {
+    private static final Logger logger = LoggerFactory.getLogger(AdminCountersService.class);
+
+    @Autowired
+    private AdminCountersRepository adminCountersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SwapRequestRepository swapRequestRepository;
+
+    @Autowired
+    private UserBanRepository userBanRepository;
+
+    @Autowired
+    private FlaggedSkillRepository flaggedSkillRepository;
+
+    @Autowired
+    private PlatformAnnouncementRepository announcementRepository;
+
+    public AdminCounters getCounters() {
+        return adminCountersRepository.findById(AdminCounters.GLOBAL_ID).orElseGet(this::reconcile);
+    }
+
+    public void userRegistered() {
+        increment(Map.of("totalUsers", 1L, "activeUsers", 1L));
+    }
+
+    // Active users are active and not banned, so only an active account moves that count
+    public void userBanned(boolean accountActive) {
+        increment(accountActive
+                ? Map.of("activeBans", 1L, "activeUsers", -1L)
+                : Map.of("activeBans", 1L));
+    }
+
+    public void userUnbanned(boolean accountActive) {
+        increment(accountActive
+                ? Map.of("activeBans", -1L, "activeUsers", 1L)
+                : Map.of("activeBans", -1L));
+    }
+
+    public void swapCreated(SwapStatus status) {
+        increment(Map.of("totalSwaps", 1L, swapStatusField(status), 1L));
+    }
+
+    public void swapStatusChanged(SwapStatus from, SwapStatus to) {
+        if (from == to) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (from != null) {
+            deltas.put(swapStatusField(from), -1L);
+        }
+        if (to != null) {
+            deltas.put(swapStatusField(to), 1L);
+        }
+        increment(deltas);
+    }
+
+    public void skillFlagged() {
+        increment(Map.of("pendingFlaggedSkills", 1L));
+    }
+
+    public void flaggedSkillReviewed(String previousStatus) {
+        if ("PENDING".equals(previousStatus)) {
+            increment(Map.of("pendingFlaggedSkills", -1L));
+        }
+    }
+
+    public void announcementCreated() {
+        increment(Map.of("activeAnnouncements", 1L));
+    }
+
+    public void announcementDeactivated() {
+        increment(Map.of("activeAnnouncements", -1L));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.counters.reconcile-interval-ms:3600000}",
+               initialDelayString = "${app.admin.counters.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Failed to reconcile admin counters: {}", e.getMessage());
+        }
+    }
+
+    // Recounts everything from the source collections and overwrites the document
+    public AdminCounters reconcile() {
+        AdminCounters counted = new AdminCounters();
+        counted.setTotalUsers(userRepository.count());
+        counted.setActiveUsers(userRepository.countByActiveTrueAndBannedFalse());
+        counted.setActiveBans(userBanRepository.countByIsActiveTrue());
+        counted.setTotalSwaps(swapRequestRepository.count());
+        Map<String, Long> byStatus = new HashMap<>();
+        for (SwapStatus status : SwapStatus.values()) {
+            byStatus.put(status.name(), swapRequestRepository.countByStatus(status));
+        }
+        counted.setSwapsByStatus(byStatus);
+        counted.setPendingFlaggedSkills(flaggedSkillRepository.countByStatus("PENDING"));
+        counted.setActiveAnnouncements(announcementRepository.countByIsActiveTrue());
+        counted.setReconciledAt(LocalDateTime.now());
+
+        adminCountersRepository.findById(AdminCounters.GLOBAL_ID).ifPresent(previous -> {
+            if (previous.getTotalSwaps() != counted.getTotalSwaps()
+                    || previous.getActiveUsers() != counted.getActiveUsers()
+                    || previous.getActiveBans() != counted.getActiveBans()
+                    || !counted.getSwapsByStatus().equals(previous.getSwapsByStatus())) {
+                logger.info("Admin counters drifted and were corrected (swaps {} -> {}, active users {} -> {})",
+                        previous.getTotalSwaps(), counted.getTotalSwaps(),
+                        previous.getActiveUsers(), counted.getActiveUsers());
+            }
+        });
+        return adminCountersRepository.save(counted);
+    }
+
+    private static String swapStatusField(SwapStatus status) {
+        return "swapsByStatus." + status.name();
+    }
+
+    // Counters are advisory; a failed increment must never fail the write that triggered it
+    private void increment(Map<String, Long> deltas) {
+        try {
+            adminCountersRepository.increment(deltas);
+        } catch (Exception e) {
+            logger.warn("Failed to update admin counters {}: {}", deltas, e.getMessage());
+        }
+    }
+}
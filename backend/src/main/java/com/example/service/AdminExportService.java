@@ -0,0 +1,273 @@
+package com.example.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.exception.BadRequestException;
+import com.example.model.SwapRequest;
+import com.example.model.SwapStatus;
+import com.example.model.User;
+import com.example.model.UserBan;
+import com.example.repository.AdminExportRepository;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+
+/**
+ * Streams admin data exports as NDJSON or CSV straight from a Mongo cursor. Each row
+ * is flattened to a fixed column set and written through a bounded buffer, so heap
+ * use does not depend on how many rows the export contains.
+ */
+@Service
+public class AdminExportService {
+    private static final Logger logger = LoggerFactory.getLogger(AdminExportService.class);
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    // Column header and the document path it is read from
+    private record Column(String header, String path) {}
+
+    private static final List<Column> SWAP_COLUMNS = List.of(
+            new Column("id", "_id"),
+            new Column("requesterId", "requesterId"),
+            new Column("requestedUserId", "requestedUserId"),
+            new Column("requesterSkill", "requesterSkill"),
+            new Column("requestedSkill", "requestedSkill"),
+            new Column("status", "status"),
+            new Column("superSwap", "isSuperSwap"),
+            new Column("createdAt", "createdAt"),
+            new Column("updatedAt", "updatedAt"),
+            new Column("deadline", "deadline"));
+
+    private static final List<Column> BAN_COLUMNS = List.of(
+            new Column("id", "_id"),
+            new Column("userId", "user"),
+            new Column("bannedById", "bannedBy"),
+            new Column("reason", "reason"),
+            new Column("bannedAt", "bannedAt"),
+            new Column("active", "isActive"),
+            new Column("unbannedAt", "unbannedAt"),
+            new Column("unbannedById", "unbannedBy"),
+            new Column("unbanReason", "unbanReason"));
+
+    private static final List<Column> USER_COLUMNS = List.of(
+            new Column("id", "_id"),
+            new Column("name", "name"),
+            new Column("username", "username"),
+            new Column("email", "email"),
+            new Column("location", "location"),
+            new Column("active", "active"),
+            new Column("banned", "banned"),
+            new Column("totalSwaps", "stats.totalSwaps"),
+            new Column("completedSwaps", "stats.completedSwaps"),
+            new Column("profileViews", "stats.profileViews"),
+            new Column("averageRating", "stats.averageRating"),
+            new Column("totalRatings", "stats.totalRatings"));
+
+    @Autowired
+    private AdminExportRepository exportRepository;
+
+    @Value("${app.admin.export.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.admin.export.flush-every-rows:500}")
+    private int flushEveryRows;
+
+    public long exportSwaps(Format format, SwapStatus status, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        Document filter = dateRange("createdAt", from, to);
+        if (status != null) {
+            filter.append("status", status.name());
+        }
+        return export(SwapRequest.class, filter, new Document("createdAt", 1), SWAP_COLUMNS, format, out);
+    }
+
+    public long exportBans(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Document filter = dateRange("bannedAt", from, to);
+        return export(UserBan.class, filter, new Document("bannedAt", 1), BAN_COLUMNS, format, out);
+    }
+
+    // Users have no creation timestamp of their own; the ObjectId carries it
+    public long exportUsers(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Document range = new Document();
+        if (from != null) {
+            range.append("$gte", new ObjectId(startOf(from)));
+        }
+        if (to != null) {
+            range.append("$lt", new ObjectId(startOf(to.plusDays(1))));
+        }
+        Document filter = range.isEmpty() ? new Document() : new Document("_id", range);
+        return export(User.class, filter, new Document("_id", 1), USER_COLUMNS, format, out);
+    }
+
+    // Parameters are validated before streaming starts; once the response is committed
+    // an error can no longer change the status code
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+
+    public SwapStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return SwapStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid status: " + status);
+        }
+    }
+
+    private long export(Class<?> entityClass, Document filter, Document sort, List<Column> columns,
+                        Format format, OutputStream out) throws IOException {
+        Document projection = new Document();
+        for (Column column : columns) {
+            projection.append(column.path(), 1);
+        }
+
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        try (MongoCursor<Document> cursor = exportRepository.openCursor(entityClass, filter, projection, sort, batchSize)) {
+            if (format == Format.CSV) {
+                writeCsvHeader(writer, columns);
+            }
+            while (cursor.hasNext()) {
+                Document source = cursor.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, source, columns);
+                } else {
+                    writeJsonRow(writer, source, columns);
+                }
+                // Push completed rows to the client instead of letting the container buffer grow
+                if (++rows % flushEveryRows == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("Export of {} aborted after {} rows: {}", entityClass.getSimpleName(), rows, e.getMessage());
+            throw e;
+        }
+        logger.info("Exported {} {} rows as {}", rows, entityClass.getSimpleName(), format);
+        return rows;
+    }
+
+    private void writeJsonRow(Writer writer, Document source, List<Column> columns) throws IOException {
+        Document row = new Document();
+        for (Column column : columns) {
+            row.append(column.header(), cell(source, column.path()));
+        }
+        writer.write(row.toJson());
+        writer.write('\n');
+    }
+
+    private void writeCsvHeader(Writer writer, List<Column> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).header());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvRow(Writer writer, Document source, List<Column> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = cell(source, columns.get(i).path());
+            if (value != null) {
+                writer.write(csvEscape(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Flattens BSON values to plain JSON/CSV scalars: ids as hex, refs as the referenced id,
+    // dates as ISO-8601 instants
+    private static Object cell(Document source, String path) {
+        Object value = source;
+        for (String key : path.split("\\.")) {
+            if (!(value instanceof Document document)) {
+                return null;
+            }
+            value = document.get(key);
+        }
+        if (value instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        if (value instanceof DBRef ref) {
+            return ref.getId() instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(ref.getId());
+        }
+        if (value instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        return value;
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // 'to' is inclusive of the whole day
+    private static Document dateRange(String field, LocalDate from, LocalDate to) {
+        Document range = new Document();
+        if (from != null) {
+            range.append("$gte", startOf(from));
+        }
+        if (to != null) {
+            range.append("$lt", startOf(to.plusDays(1)));
+        }
+        return range.isEmpty() ? new Document() : new Document(field, range);
+    }
+
+    // LocalDateTime fields are stored as Dates in the JVM's default zone
+    private static Date startOf(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
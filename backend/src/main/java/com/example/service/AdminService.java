@@ -8,13 +8,19 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.dto.FlaggedSkillDto;
 import com.example.dto.PlatformAnnouncementDto;
 import com.example.dto.UserBanDto;
+import com.example.event.UserAccessChangedEvent;
+import com.example.event.UserProfileChangedEvent;
 import com.example.exception.ResourceNotFoundException;
+import com.example.model.AdminCounters;
 import com.example.model.FlaggedSkill;
 import com.example.model.PlatformAnnouncement;
 import com.example.model.SwapRequest;
@@ -46,6 +52,12 @@ public class AdminService {
     @Autowired
     private PlatformAnnouncementRepository announcementRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AdminCountersService adminCountersService;
+
     // ========================
     // FLAGGED SKILLS MANAGEMENT
     // ========================
@@ -65,12 +77,15 @@ public class AdminService {
         User admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
 
+        String previousStatus = flaggedSkill.getStatus();
         flaggedSkill.setStatus("APPROVED");
         flaggedSkill.setReviewedAt(LocalDateTime.now());
         flaggedSkill.setReviewedBy(admin);
         flaggedSkill.setReviewNotes(reviewNotes);
 
-        return flaggedSkillRepository.save(flaggedSkill);
+        FlaggedSkill saved = flaggedSkillRepository.save(flaggedSkill);
+        adminCountersService.flaggedSkillReviewed(previousStatus);
+        return saved;
     }
 
     public FlaggedSkill rejectSkill(String flaggedSkillId, String adminId, String reviewNotes) {
@@ -81,18 +96,20 @@ public class AdminService {
                 .orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
 
         // Remove the skill from user's offered skills
-        User user = flaggedSkill.getUser();
-        if (user.getOfferedSkills() != null) {
-            user.getOfferedSkills().removeIf(skill -> skill.getName().equals(flaggedSkill.getSkillName()));
-            userRepository.save(user);
+        User user = userRepository.removeOfferedSkill(flaggedSkill.getUser().getId(), flaggedSkill.getSkillName());
+        if (user != null) {
+            eventPublisher.publishEvent(new UserProfileChangedEvent(user));
         }
 
+        String previousStatus = flaggedSkill.getStatus();
         flaggedSkill.setStatus("REJECTED");
         flaggedSkill.setReviewedAt(LocalDateTime.now());
         flaggedSkill.setReviewedBy(admin);
         flaggedSkill.setReviewNotes(reviewNotes);
 
-        return flaggedSkillRepository.save(flaggedSkill);
+        FlaggedSkill saved = flaggedSkillRepository.save(flaggedSkill);
+        adminCountersService.flaggedSkillReviewed(previousStatus);
+        return saved;
     }
 
     public FlaggedSkill flagSkill(FlaggedSkillDto flaggedSkillDto) {
@@ -106,7 +123,9 @@ public class AdminService {
             flaggedSkillDto.getReason()
         );
 
-        return flaggedSkillRepository.save(flaggedSkill);
+        FlaggedSkill saved = flaggedSkillRepository.save(flaggedSkill);
+        adminCountersService.skillFlagged();
+        return saved;
     }
 
     // ========================
@@ -131,8 +150,13 @@ public class AdminService {
         userBan = userBanRepository.save(userBan);
 
         // Update user status
-        user.setBanned(true);
-        userRepository.save(user);
+        user = userRepository.setBanned(user.getId(), true);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user));
+        eventPublisher.publishEvent(new UserAccessChangedEvent(user.getId(), UserAccessChangedEvent.Change.BANNED));
+        adminCountersService.userBanned(user.isActive());
 
         return userBan;
     }
@@ -154,8 +178,13 @@ public class AdminService {
         userBan = userBanRepository.save(userBan);
 
         // Update user status
-        user.setBanned(false);
-        userRepository.save(user);
+        user = userRepository.setBanned(user.getId(), false);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user));
+        eventPublisher.publishEvent(new UserAccessChangedEvent(user.getId(), UserAccessChangedEvent.Change.UNBANNED));
+        adminCountersService.userUnbanned(user.isActive());
 
         return userBan;
     }
@@ -185,19 +214,18 @@ public class AdminService {
     }
 
     public Map<String, Object> getSwapStatistics() {
-        List<SwapRequest> allSwaps = swapRequestRepository.findAll();
-        
-        long totalSwaps = allSwaps.size();
-        long pendingSwaps = allSwaps.stream().filter(s -> SwapStatus.PENDING.equals(s.getStatus())).count();
-        long acceptedSwaps = allSwaps.stream().filter(s -> SwapStatus.ACCEPTED.equals(s.getStatus())).count();
-        long cancelledSwaps = allSwaps.stream().filter(s -> SwapStatus.CANCELLED.equals(s.getStatus())).count();
-        long completedSwaps = allSwaps.stream().filter(s -> SwapStatus.COMPLETED.equals(s.getStatus())).count();
+        return swapStatistics(adminCountersService.getCounters());
+    }
+
+    private Map<String, Object> swapStatistics(AdminCounters counters) {
+        long totalSwaps = counters.getTotalSwaps();
+        long completedSwaps = counters.getSwapCount(SwapStatus.COMPLETED);
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalSwaps", totalSwaps);
-        stats.put("pendingSwaps", pendingSwaps);
-        stats.put("acceptedSwaps", acceptedSwaps);
-        stats.put("cancelledSwaps", cancelledSwaps);
+        stats.put("pendingSwaps", counters.getSwapCount(SwapStatus.PENDING));
+        stats.put("acceptedSwaps", counters.getSwapCount(SwapStatus.ACCEPTED));
+        stats.put("cancelledSwaps", counters.getSwapCount(SwapStatus.CANCELLED));
         stats.put("completedSwaps", completedSwaps);
         stats.put("completionRate", totalSwaps > 0 ? (double) completedSwaps / totalSwaps * 100 : 0);
 
@@ -219,7 +247,11 @@ public class AdminService {
             admin
         );
 
-        return announcementRepository.save(announcement);
+        PlatformAnnouncement saved = announcementRepository.save(announcement);
+        if (saved.isActive()) {
+            adminCountersService.announcementCreated();
+        }
+        return saved;
     }
 
     public List<PlatformAnnouncement> getActiveAnnouncements() {
@@ -246,121 +278,96 @@ public class AdminService {
         PlatformAnnouncement announcement = announcementRepository.findById(announcementId)
                 .orElseThrow(() -> new ResourceNotFoundException("Announcement not found"));
 
+        boolean wasActive = announcement.isActive();
         announcement.setActive(false);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        if (wasActive) {
+            adminCountersService.announcementDeactivated();
+        }
     }
 
     // ========================
     // REPORTS GENERATION
     // ========================
 
+    // Counts come from one $facet aggregation; top-K lists are sort+limit on indexed fields,
+    // so memory use doesn't grow with the collections
     public Map<String, Object> generateUserActivityReport() {
         Map<String, Object> report = new HashMap<>();
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        
-        List<User> allUsers = userRepository.findAll();
-        long totalUsers = allUsers.size();
-        long activeUsers = allUsers.stream().filter(user -> user.isActive() && !user.isBanned()).count();
-        long bannedUsers = allUsers.stream().filter(User::isBanned).count();
-        
+
+        Map<?, ?> activity = (Map<?, ?>) userRepository.aggregateReportStats().get("activity");
+        long totalUsers = asLong(activity.get("totalUsers"));
+        long activeUsers = asLong(activity.get("activeUsers"));
+        long bannedUsers = asLong(activity.get("bannedUsers"));
+
         report.put("userStats", Map.of(
             "totalUsers", totalUsers,
             "activeUsers", activeUsers,
             "bannedUsers", bannedUsers,
             "inactiveUsers", totalUsers - activeUsers - bannedUsers
         ));
-        
-        // Recent user activity
-        List<User> recentUsers = allUsers.stream()
-            .sorted((u1, u2) -> Integer.compare(u2.getStats().getProfileViews(), u1.getStats().getProfileViews()))
-            .limit(10)
-            .toList();
-        
-        report.put("recentUsers", recentUsers);
-        
+
+        // Most viewed profiles
+        report.put("recentUsers", userRepository.findReportRows(
+            PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "stats.profileViews"))));
+
         return report;
     }
 
     public Map<String, Object> generateSwapStatsReport() {
         Map<String, Object> report = new HashMap<>();
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        
-        Map<String, Object> swapStats = getSwapStatistics();
-        report.put("swapStats", swapStats);
-        
-        // Recent swaps
-        List<SwapRequest> recentSwaps = swapRequestRepository.findAllByOrderByCreatedAtDesc();
-        report.put("recentSwaps", recentSwaps.stream().limit(20).toList());
-        
+
+        report.put("swapStats", getSwapStatistics());
+        report.put("recentSwaps", swapRequestRepository.findTop20ByOrderByCreatedAtDesc());
+
         return report;
     }
 
     public Map<String, Object> generateFeedbackReport() {
         Map<String, Object> report = new HashMap<>();
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        
-        List<User> allUsers = userRepository.findAll();
-        double averageRating = allUsers.stream()
-            .mapToDouble(user -> user.getStats() != null ? user.getStats().getAverageRating() : 0.0)
-            .average()
-            .orElse(0.0);
-        
-        long totalRatings = allUsers.stream()
-            .mapToLong(user -> user.getStats() != null ? user.getStats().getTotalRatings() : 0)
-            .sum();
-        
+
+        Map<?, ?> feedback = (Map<?, ?>) userRepository.aggregateReportStats().get("feedback");
+        Object averageRating = feedback.get("averageRating");
         report.put("feedbackStats", Map.of(
-            "averageRating", averageRating,
-            "totalRatings", totalRatings,
-            "usersWithRatings", allUsers.stream()
-                .filter(user -> user.getStats() != null && user.getStats().getTotalRatings() > 0)
-                .count()
+            "averageRating", averageRating instanceof Number number ? number.doubleValue() : 0.0,
+            "totalRatings", asLong(feedback.get("totalRatings")),
+            "usersWithRatings", asLong(feedback.get("usersWithRatings"))
         ));
-        
+
         // Top rated users
-        List<User> topRatedUsers = allUsers.stream()
-            .filter(user -> user.getStats() != null && user.getStats().getAverageRating() > 0)
-            .sorted((u1, u2) -> Double.compare(u2.getStats().getAverageRating(), u1.getStats().getAverageRating()))
-            .limit(10)
-            .toList();
-        
-        report.put("topRatedUsers", topRatedUsers);
-        
+        report.put("topRatedUsers", userRepository.findRatedReportRows(
+            PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "stats.averageRating"))));
+
         return report;
     }
 
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
     // ========================
     // DASHBOARD STATISTICS
     // ========================
 
+    // One read of the materialized counters document
     public Map<String, Object> getDashboardStats() {
+        AdminCounters counters = adminCountersService.getCounters();
         Map<String, Object> stats = new HashMap<>();
-        
-        // User statistics
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByActiveTrueAndBannedFalse();
-        long bannedUsers = userBanRepository.findByIsActiveTrue().size();
-        
-        // Swap statistics
-        Map<String, Object> swapStats = getSwapStatistics();
-        
-        // Flagged skills
-        long pendingFlaggedSkills = flaggedSkillRepository.countByStatus("PENDING");
-        
-        // Announcements
-        long activeAnnouncements = announcementRepository.countByIsActiveTrue();
-        
+
         stats.put("userStats", Map.of(
-            "totalUsers", totalUsers,
-            "activeUsers", activeUsers,
-            "bannedUsers", bannedUsers
+            "totalUsers", counters.getTotalUsers(),
+            "activeUsers", counters.getActiveUsers(),
+            "bannedUsers", counters.getActiveBans()
         ));
-        
-        stats.put("swapStats", swapStats);
-        stats.put("pendingFlaggedSkills", pendingFlaggedSkills);
-        stats.put("activeAnnouncements", activeAnnouncements);
-        
+
+        stats.put("swapStats", swapStatistics(counters));
+        stats.put("pendingFlaggedSkills", counters.getPendingFlaggedSkills());
+        stats.put("activeAnnouncements", counters.getActiveAnnouncements());
+
         return stats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.BadgeBackfillJob;
+import com.example.model.User;
+import com.example.model.UserBadge;
+import com.example.repository.BadgeBackfillJobRepository;
+import com.example.repository.UserBadgeRepository;
+import com.example.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Awards every badge each user currently qualifies for, across the whole user base.
+ * Users are streamed in _id order from a single cursor and handed out in batches;
+ * each batch is split across a worker pool that evaluates the compiled badge rules
+ * and writes its awards as one unordered bulk upsert. After a batch completes the
+ * job document is checkpointed, so a crashed or cancelled job resumes after the
+ * last finished batch. Upserts make re-processing a batch harmless.
+ */
+@Service
+public class BadgeBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(BadgeBackfillService.class);
+
+    @Autowired
+    private BadgeBackfillJobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private BadgeRuleEngine badgeRuleEngine;
+
+    @Autowired
+    private BadgeCatalog badgeCatalog;
+
+    @Value("${app.badges.backfill.batch-size:2000}")
+    private int batchSize;
+
+    // 0 means one worker per available core
+    @Value("${app.badges.backfill.workers:0}")
+    private int workerCount;
+
+    @Value("${app.badges.backfill.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "badge-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService workers;
+    private int workerPoolSize;
+    private final AtomicReference<String> runningJobId = new AtomicReference<>();
+    private volatile boolean cancelRequested;
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    public void init() {
+        workerPoolSize = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerPoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "badge-backfill-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The job stays RUNNING in Mongo and is picked up again on the next start
+        shuttingDown = true;
+        runner.shutdown();
+        runner.awaitTermination(30, TimeUnit.SECONDS);
+        workers.shutdownNow();
+    }
+
+    // A job left RUNNING means the previous process died mid-run
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJob() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        jobRepository.findFirstByStatusOrderByStartedAtDesc(BadgeBackfillJob.Status.RUNNING).ifPresent(job -> {
+            logger.info("Resuming badge backfill {} after user {}", job.getId(), job.getLastUserId());
+            submit(job);
+        });
+    }
+
+    /**
+     * Starts a backfill in the background. With resume, the most recent unfinished job
+     * (cancelled, failed or interrupted) continues from its checkpoint; otherwise a new
+     * job starts from the first user.
+     */
+    public synchronized BadgeBackfillJob start(String adminId, boolean resume) {
+        if (runningJobId.get() != null) {
+            throw new BadRequestException("A badge backfill is already running");
+        }
+        BadgeBackfillJob job = null;
+        if (resume) {
+            job = jobRepository.findFirstByOrderByStartedAtDesc()
+                    .filter(latest -> latest.getStatus() != BadgeBackfillJob.Status.COMPLETED)
+                    .orElse(null);
+        }
+        if (job == null) {
+            job = new BadgeBackfillJob();
+        }
+        job.setStartedBy(adminId);
+        job.setStatus(BadgeBackfillJob.Status.RUNNING);
+        job.setError(null);
+        job.setFinishedAt(null);
+        job.setTotalUsers(userRepository.count());
+        job.setUpdatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    public BadgeBackfillJob cancel(String jobId) {
+        BadgeBackfillJob job = getJob(jobId);
+        if (!jobId.equals(runningJobId.get())) {
+            throw new BadRequestException("Badge backfill " + jobId + " is not running");
+        }
+        cancelRequested = true;
+        return job;
+    }
+
+    public BadgeBackfillJob getJob(String jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Badge backfill job not found"));
+    }
+
+    public BadgeBackfillJob getLatestJob() {
+        return jobRepository.findFirstByOrderByStartedAtDesc()
+                .orElseThrow(() -> new ResourceNotFoundException("No badge backfill has been run"));
+    }
+
+    private void submit(BadgeBackfillJob job) {
+        if (!runningJobId.compareAndSet(null, job.getId())) {
+            throw new BadRequestException("A badge backfill is already running");
+        }
+        cancelRequested = false;
+        runner.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                runningJobId.set(null);
+            }
+        });
+    }
+
+    private void run(BadgeBackfillJob job) {
+        Throughput throughput = new Throughput(job.getProcessedUsers());
+        // Badges edited directly in the database shouldn't have to wait for the catalog poll
+        badgeCatalog.reload();
+        try (Stream<User> users = userRepository.streamStatsAfter(job.getLastUserId(), batchSize)) {
+            List<User> batch = new ArrayList<>(batchSize);
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext() && !cancelRequested && !shuttingDown) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    checkpoint(job, batch, processBatch(batch), throughput);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (shuttingDown) {
+                logger.info("Badge backfill {} interrupted by shutdown after user {}", job.getId(), job.getLastUserId());
+                return;
+            }
+            finish(job, cancelRequested ? BadgeBackfillJob.Status.CANCELLED : BadgeBackfillJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("Badge backfill {} failed after user {}: {}", job.getId(), job.getLastUserId(), e.getMessage());
+            finish(job, BadgeBackfillJob.Status.FAILED, e.getMessage());
+        }
+    }
+
+    // Evaluates and writes one batch on the worker pool; returns the number of new awards
+    private int processBatch(List<User> batch) {
+        int chunks = Math.max(1, Math.min(batch.size(), workerPoolSize));
+        int chunkSize = (batch.size() + chunks - 1) / chunks;
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<User> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<UserBadge> awards = new ArrayList<>();
+                for (User user : chunk) {
+                    awards.addAll(badgeRuleEngine.matchingAwards(user));
+                }
+                return userBadgeRepository.upsertAwards(awards);
+            }, workers));
+        }
+        return futures.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private void checkpoint(BadgeBackfillJob job, List<User> batch, int awarded, Throughput throughput) {
+        job.setLastUserId(batch.get(batch.size() - 1).getId());
+        job.setProcessedUsers(job.getProcessedUsers() + batch.size());
+        job.setAwardedBadges(job.getAwardedBadges() + awarded);
+        job.setUsersPerMinute(throughput.usersPerMinute(job.getProcessedUsers()));
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    private void finish(BadgeBackfillJob job, BadgeBackfillJob.Status status, String error) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        logger.info("Badge backfill {} {}: {} users, {} badges awarded, {} users/min", job.getId(),
+                status.name().toLowerCase(), job.getProcessedUsers(), job.getAwardedBadges(),
+                Math.round(job.getUsersPerMinute()));
+    }
+
+    // Rate of the current run only, so a resumed job isn't credited with earlier progress
+    private static final class Throughput {
+        private final long startedAt = System.nanoTime();
+        private final long processedAtStart;
+
+        Throughput(long processedAtStart) {
+            this.processedAtStart = processedAtStart;
+        }
+
+        double usersPerMinute(long processed) {
+            double minutes = Duration.ofNanos(System.nanoTime() - startedAt).toMillis() / 60_000.0;
+            return minutes > 0 ? (processed - processedAtStart) / minutes : 0;
+        }
+    }
+}
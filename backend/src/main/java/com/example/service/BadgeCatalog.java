@@ -0,0 +1,135 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.event.BadgeCatalogChangedEvent;
+import com.example.model.Badge;
+import com.example.repository.BadgeRepository;
+
+/**
+ * Immutable, versioned in-memory copy of the badges collection. Readers grab the
+ * current snapshot once and do id/name lookups against it without touching Mongo.
+ * A new snapshot is built when a badge is written through this application and by
+ * a periodic poll for edits made elsewhere; a BadgeCatalogChangedEvent is
+ * published whenever the content actually changed. Badge instances in a snapshot
+ * are shared between requests and must be treated as read-only.
+ */
+@Component
+public class BadgeCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(BadgeCatalog.class);
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile Snapshot snapshot = new Snapshot(0, List.of(), "");
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Snapshot updated;
+        synchronized (this) {
+            List<Badge> badges = badgeRepository.findAll();
+            String fingerprint = fingerprint(badges);
+            if (fingerprint.equals(snapshot.fingerprint)) {
+                return;
+            }
+            updated = new Snapshot(snapshot.version + 1, badges, fingerprint);
+            snapshot = updated;
+        }
+        logger.info("Badge catalog v{} loaded with {} badges ({} active)",
+                updated.getVersion(), updated.byId.size(), updated.activeBadges.size());
+        eventPublisher.publishEvent(new BadgeCatalogChangedEvent(updated));
+    }
+
+    @Scheduled(fixedDelayString = "${app.badges.reload-interval-ms:60000}",
+               initialDelayString = "${app.badges.reload-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("Failed to reload badge catalog: {}", e.getMessage());
+        }
+    }
+
+    // Everything a badge endpoint renders or a rule reads
+    private static String fingerprint(List<Badge> badges) {
+        StringBuilder fingerprint = new StringBuilder();
+        badges.stream()
+                .sorted(Comparator.comparing(Badge::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(badge -> fingerprint.append(badge.getId()).append('|')
+                        .append(badge.getName()).append('|')
+                        .append(badge.getDescription()).append('|')
+                        .append(badge.getIcon()).append('|')
+                        .append(badge.getColor()).append('|')
+                        .append(badge.getBgColor()).append('|')
+                        .append(badge.getRarity()).append('|')
+                        .append(badge.getConditionType()).append('|')
+                        .append(badge.getConditionField()).append('|')
+                        .append(badge.getConditionValue()).append('|')
+                        .append(badge.getRequirements()).append('|')
+                        .append(badge.getIsActive()).append('|')
+                        .append(badge.getUpdatedAt()).append(';'));
+        return fingerprint.toString();
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final List<Badge> activeBadges;
+        private final Map<String, Badge> byId;
+        private final Map<String, Badge> byName;
+        private final String fingerprint;
+
+        Snapshot(long version, List<Badge> badges, String fingerprint) {
+            this.version = version;
+            this.fingerprint = fingerprint;
+            List<Badge> active = new ArrayList<>();
+            Map<String, Badge> ids = new HashMap<>();
+            Map<String, Badge> names = new HashMap<>();
+            for (Badge badge : badges) {
+                ids.put(badge.getId(), badge);
+                if (badge.getName() != null) {
+                    names.putIfAbsent(badge.getName(), badge);
+                }
+                if (Boolean.TRUE.equals(badge.getIsActive())) {
+                    active.add(badge);
+                }
+            }
+            this.activeBadges = List.copyOf(active);
+            this.byId = Map.copyOf(ids);
+            this.byName = Map.copyOf(names);
+        }
+
+        public long getVersion() { return version; }
+
+        // Active badges in collection order
+        public List<Badge> getActiveBadges() { return activeBadges; }
+
+        // Includes inactive badges, so earned-but-retired badges still resolve; null if unknown
+        public Badge findById(String id) {
+            return id == null ? null : byId.get(id);
+        }
+
+        public Badge findByName(String name) {
+            return name == null ? null : byName.get(name);
+        }
+    }
+}
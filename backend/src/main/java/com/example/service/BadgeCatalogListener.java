@@ -0,0 +1,27 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.example.model.Badge;
+
+// Refreshes the badge catalog (and with it the compiled rules) as soon as a badge is written
+@Component
+public class BadgeCatalogListener extends AbstractMongoEventListener<Badge> {
+
+    @Autowired
+    private BadgeCatalog badgeCatalog;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Badge> event) {
+        badgeCatalog.reload();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Badge> event) {
+        badgeCatalog.reload();
+    }
+}
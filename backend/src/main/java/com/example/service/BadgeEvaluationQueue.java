@@ -0,0 +1,158 @@
+package com.example.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserStatsChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Takes badge evaluation off the request path. Stat changes are queued per user and
+ * coalesced for a short window, so a burst of events for the same user (a completed
+ * swap followed by two ratings, say) results in a single evaluation by the worker
+ * pool. A user is never evaluated by two workers at once.
+ */
+@Component
+public class BadgeEvaluationQueue {
+    private static final Logger logger = LoggerFactory.getLogger(BadgeEvaluationQueue.class);
+
+    @Autowired
+    private BadgeService badgeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.badges.coalesce-window-ms:500}")
+    private long coalesceWindowMs;
+
+    @Value("${app.badges.workers:2}")
+    private int workerCount;
+
+    // Users waiting for evaluation, with the stat fields changed since they were queued
+    private final Map<String, PendingEvaluation> pending = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "badge-queue-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService workers;
+    private Timer evaluationTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "badge-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("badges.queue.depth", pending, Map::size)
+                .description("Users waiting for a badge evaluation")
+                .register(meterRegistry);
+        Gauge.builder("badges.queue.lag.seconds", this, BadgeEvaluationQueue::oldestLagSeconds)
+                .description("Time the oldest queued badge evaluation has been waiting")
+                .register(meterRegistry);
+        evaluationTimer = Timer.builder("badges.evaluation")
+                .description("Time spent evaluating badges for one user")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        if (!pending.isEmpty()) {
+            logger.warn("Dropping {} queued badge evaluations on shutdown", pending.size());
+        }
+    }
+
+    @EventListener
+    public void onStatsChanged(UserStatsChangedEvent event) {
+        enqueue(event.getUserId(), event.getChangedFields());
+    }
+
+    public void enqueue(String userId, Set<String> changedFields) {
+        if (userId == null) {
+            return;
+        }
+        boolean[] created = new boolean[1];
+        pending.compute(userId, (id, evaluation) -> {
+            if (evaluation == null) {
+                created[0] = true;
+                evaluation = new PendingEvaluation(System.nanoTime());
+            }
+            evaluation.fields.addAll(changedFields);
+            return evaluation;
+        });
+        // Only the first event of a window schedules the dispatch; later ones just merge in
+        if (created[0]) {
+            schedule(userId);
+        }
+    }
+
+    public double oldestLagSeconds() {
+        long now = System.nanoTime();
+        return pending.values().stream()
+                .mapToLong(evaluation -> now - evaluation.queuedAt)
+                .max()
+                .orElse(0L) / 1_000_000_000.0;
+    }
+
+    private void schedule(String userId) {
+        scheduler.schedule(() -> dispatch(userId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatch(String userId) {
+        if (!inFlight.add(userId)) {
+            // Still being evaluated from an earlier window; look again after this one
+            schedule(userId);
+            return;
+        }
+        PendingEvaluation evaluation = pending.remove(userId);
+        if (evaluation == null) {
+            inFlight.remove(userId);
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                evaluationTimer.record(() -> badgeService.checkAndAwardBadges(userId, evaluation.fields));
+            } catch (Exception e) {
+                logger.error("Badge evaluation failed for user {} ({}): {}", userId, evaluation.fields, e.getMessage());
+            } finally {
+                inFlight.remove(userId);
+            }
+        });
+    }
+
+    private static final class PendingEvaluation {
+        private final long queuedAt;
+        private final Set<String> fields = new HashSet<>();
+
+        PendingEvaluation(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.service;
+
+import static com.example.event.UserStatsChangedEvent.AVERAGE_RATING;
+import static com.example.event.UserStatsChangedEvent.COMPLETED_SWAPS;
+import static com.example.event.UserStatsChangedEvent.PROFILE_VIEWS;
+import static com.example.event.UserStatsChangedEvent.TOTAL_MESSAGES;
+import static com.example.event.UserStatsChangedEvent.TOTAL_RATINGS;
+import static com.example.event.UserStatsChangedEvent.TOTAL_SWAPS;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.BadgeCatalogChangedEvent;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.Badge;
+import com.example.model.ProfileStats;
+import com.example.model.User;
+import com.example.model.UserBadge;
+import com.example.repository.UserBadgeRepository;
+import com.example.repository.UserRepository;
+
+/**
+ * Compiles the active Badge documents into a table of threshold predicates over a
+ * fixed vector of user stats, indexed by the stat fields each rule reads. A stats
+ * change only evaluates the rules that depend on the changed fields. The table is
+ * recompiled from every new BadgeCatalog snapshot.
+ */
+@Component
+public class BadgeRuleEngine {
+    private static final Logger logger = LoggerFactory.getLogger(BadgeRuleEngine.class);
+
+    public static final String DAYS_ACTIVE = "daysActive";
+
+    // Order defines the position of each field in a stats vector
+    private static final List<String> STAT_FIELDS = List.of(
+            TOTAL_SWAPS, COMPLETED_SWAPS, PROFILE_VIEWS, AVERAGE_RATING, TOTAL_RATINGS, TOTAL_MESSAGES, DAYS_ACTIVE);
+
+    // Derived from the clock rather than written, so no event ever reports them as changed
+    private static final Set<String> TIME_BASED_FIELDS = Set.of(DAYS_ACTIVE);
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile RuleTable table = new RuleTable(List.of());
+
+    @EventListener
+    public void onCatalogChanged(BadgeCatalogChangedEvent event) {
+        List<CompiledRule> rules = new ArrayList<>();
+        for (Badge badge : event.getSnapshot().getActiveBadges()) {
+            CompiledRule rule = compile(badge);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        table = new RuleTable(rules);
+        logger.info("Compiled {} badge rules from badge catalog v{}", rules.size(), event.getSnapshot().getVersion());
+    }
+
+    /**
+     * Awards every badge whose rule depends on one of the changed fields and now holds.
+     * An empty set of fields evaluates all rules. A badge the user already has, including
+     * one an admin revoked, is never awarded again. Returns how many badges were awarded.
+     */
+    public int evaluate(String userId, Set<String> changedFields) {
+        RuleTable current = table;
+        Collection<CompiledRule> rules = current.rulesFor(changedFields);
+        if (rules.isEmpty()) {
+            return 0;
+        }
+
+        User user = userRepository.findStatsById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        List<UserBadge> matched = matchingAwards(user, rules);
+        if (matched.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> earned = new HashSet<>();
+        userBadgeRepository.findAwardedBadgeIds(userId).forEach(userBadge -> earned.add(userBadge.getBadgeId()));
+        List<UserBadge> candidates = new ArrayList<>();
+        for (UserBadge award : matched) {
+            if (!earned.contains(award.getBadgeId())) {
+                candidates.add(award);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        // The read above only saves writes; the upsert is what keeps a concurrent evaluation
+        // of the same user from inserting the award twice
+        int awarded = userBadgeRepository.upsertAwards(candidates);
+        if (awarded > 0) {
+            logger.debug("Awarded {} badges to user {}", awarded, userId);
+        }
+        return awarded;
+    }
+
+    // Unsaved awards for every rule the user currently satisfies, earned before or not
+    public List<UserBadge> matchingAwards(User user) {
+        return matchingAwards(user, table.all);
+    }
+
+    public int ruleCount() {
+        return table.all.size();
+    }
+
+    /**
+     * Ascending, distinct minimums that rules place on the field. Buffered writers use
+     * them to decide when a change is worth an evaluation; they follow the catalog
+     * because the table is recompiled on every BadgeCatalogChangedEvent.
+     */
+    public int[] thresholdsFor(String field) {
+        return table.thresholdsByField.getOrDefault(field, new int[0]).clone();
+    }
+
+    private static List<UserBadge> matchingAwards(User user, Collection<CompiledRule> rules) {
+        double[] stats = statsOf(user);
+        List<UserBadge> awards = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            if (rule.matches(stats)) {
+                awards.add(new UserBadge(user.getId(), rule.badgeId,
+                        "Earned through " + rule.conditionType.toLowerCase() + " achievement"));
+            }
+        }
+        return awards;
+    }
+
+    static double[] statsOf(User user) {
+        ProfileStats stats = user.getStats() != null ? user.getStats() : new ProfileStats();
+        double[] vector = new double[STAT_FIELDS.size()];
+        vector[STAT_FIELDS.indexOf(TOTAL_SWAPS)] = stats.getTotalSwaps();
+        vector[STAT_FIELDS.indexOf(COMPLETED_SWAPS)] = stats.getCompletedSwaps();
+        vector[STAT_FIELDS.indexOf(PROFILE_VIEWS)] = stats.getProfileViews();
+        vector[STAT_FIELDS.indexOf(AVERAGE_RATING)] = stats.getAverageRating();
+        vector[STAT_FIELDS.indexOf(TOTAL_RATINGS)] = stats.getTotalRatings();
+        vector[STAT_FIELDS.indexOf(TOTAL_MESSAGES)] = stats.getTotalMessages();
+        vector[STAT_FIELDS.indexOf(DAYS_ACTIVE)] = daysActive(user.getId());
+        return vector;
+    }
+
+    // Account age in days, taken from the ObjectId timestamp
+    private static long daysActive(String userId) {
+        if (userId == null || !ObjectId.isValid(userId)) {
+            return 0;
+        }
+        Instant created = new ObjectId(userId).getDate().toInstant();
+        return Math.max(0, Duration.between(created, Instant.now()).toDays());
+    }
+
+    // Null when the badge has no condition on a known stat field
+    private static CompiledRule compile(Badge badge) {
+        Map<String, Double> clauses = new LinkedHashMap<>();
+        if (badge.getConditionField() != null && badge.getConditionValue() != null
+                && STAT_FIELDS.contains(badge.getConditionField())) {
+            clauses.put(badge.getConditionField(), badge.getConditionValue().doubleValue());
+        }
+        if (badge.getRequirements() != null) {
+            badge.getRequirements().forEach((field, minimum) -> {
+                if (STAT_FIELDS.contains(field) && minimum != null) {
+                    clauses.put(field, minimum);
+                } else {
+                    logger.warn("Ignoring unknown requirement '{}' on badge {}", field, badge.getName());
+                }
+            });
+        }
+        if (clauses.isEmpty()) {
+            logger.warn("Badge {} has no condition on a known stat field; it will never be awarded", badge.getName());
+            return null;
+        }
+
+        int[] fields = new int[clauses.size()];
+        double[] minimums = new double[clauses.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> clause : clauses.entrySet()) {
+            fields[i] = STAT_FIELDS.indexOf(clause.getKey());
+            minimums[i] = clause.getValue();
+            i++;
+        }
+        String conditionType = badge.getConditionType() != null ? badge.getConditionType() : "ACTIVITY";
+        return new CompiledRule(badge.getId(), conditionType, clauses.keySet(), fields, minimums);
+    }
+
+    private static final class CompiledRule {
+        private final String badgeId;
+        private final String conditionType;
+        private final Set<String> dependsOn;
+        private final int[] fields;
+        private final double[] minimums;
+
+        CompiledRule(String badgeId, String conditionType, Set<String> dependsOn, int[] fields, double[] minimums) {
+            this.badgeId = badgeId;
+            this.conditionType = conditionType;
+            this.dependsOn = Set.copyOf(dependsOn);
+            this.fields = fields;
+            this.minimums = minimums;
+        }
+
+        boolean matches(double[] stats) {
+            for (int i = 0; i < fields.length; i++) {
+                if (stats[fields[i]] < minimums[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class RuleTable {
+        private final List<CompiledRule> all;
+        private final Map<String, List<CompiledRule>> byField = new HashMap<>();
+        private final Map<String, int[]> thresholdsByField = new HashMap<>();
+
+        RuleTable(List<CompiledRule> rules) {
+            this.all = List.copyOf(rules);
+            Map<String, Set<Integer>> thresholds = new HashMap<>();
+            for (CompiledRule rule : rules) {
+                for (String field : rule.dependsOn) {
+                    byField.computeIfAbsent(field, f -> new ArrayList<>()).add(rule);
+                }
+                for (int i = 0; i < rule.fields.length; i++) {
+                    // Stats are whole numbers apart from averageRating, so round the minimum up
+                    thresholds.computeIfAbsent(STAT_FIELDS.get(rule.fields[i]), f -> new TreeSet<>())
+                            .add((int) Math.ceil(rule.minimums[i]));
+                }
+            }
+            thresholds.forEach((field, values) ->
+                    thresholdsByField.put(field, values.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        Collection<CompiledRule> rulesFor(Set<String> changedFields) {
+            if (changedFields == null || changedFields.isEmpty()) {
+                return all;
+            }
+            Set<CompiledRule> rules = new LinkedHashSet<>();
+            for (String field : changedFields) {
+                rules.addAll(byField.getOrDefault(field, List.of()));
+            }
+            // Time-based rules can become true without any write, so they ride along with every evaluation
+            for (String field : TIME_BASED_FIELDS) {
+                rules.addAll(byField.getOrDefault(field, List.of()));
+            }
+            return rules;
+        }
+    }
+}
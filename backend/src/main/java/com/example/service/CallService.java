@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +30,9 @@ public class CallService {
     @Autowired
     private SwapRequestRepository swapRequestRepository;
 
+    @Autowired
+    private UserHydrator userHydrator;
+
     // Initiate a call
     public CallSessionDto initiateCall(String initiatorId, String receiverId, CallType callType, String swapRequestId) {
         User initiator = userRepository.findById(initiatorId)
@@ -95,9 +99,7 @@ public class CallService {
         List<CallSession> callSessions = callSessionRepository
             .findByInitiatorIdOrReceiverIdOrderByInitiatedAtDesc(userId, userId);
         
-        return callSessions.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+        return convertToDtos(callSessions);
     }
 
     // Get recent calls for a user
@@ -105,9 +107,7 @@ public class CallService {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
         List<CallSession> callSessions = callSessionRepository.findRecentByUserId(userId, since);
         
-        return callSessions.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+        return convertToDtos(callSessions);
     }
 
     // Get calls between two users
@@ -122,9 +122,7 @@ public class CallService {
         callSessions.addAll(reverseCalls);
         callSessions.sort((a, b) -> b.getInitiatedAt().compareTo(a.getInitiatedAt()));
         
-        return callSessions.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+        return convertToDtos(callSessions);
     }
 
     // Get call statistics for a user
@@ -169,6 +167,20 @@ public class CallService {
     }
 
     private CallSessionDto convertToDto(CallSession callSession) {
+        return convertToDto(callSession, userHydrator.loadParticipants(List.of(callSession),
+                CallSession::getInitiatorId, CallSession::getReceiverId));
+    }
+
+    // Participant names for the whole list come from one query
+    private List<CallSessionDto> convertToDtos(List<CallSession> callSessions) {
+        Map<String, User> users = userHydrator.loadParticipants(callSessions,
+                CallSession::getInitiatorId, CallSession::getReceiverId);
+        return callSessions.stream()
+            .map(callSession -> convertToDto(callSession, users))
+            .collect(Collectors.toList());
+    }
+
+    private CallSessionDto convertToDto(CallSession callSession, Map<String, User> users) {
         CallSessionDto dto = new CallSessionDto();
         dto.setId(callSession.getId());
         dto.setInitiatorId(callSession.getInitiatorId());
@@ -183,24 +195,18 @@ public class CallService {
         dto.setNotes(callSession.getNotes());
         dto.setSwapRequestId(callSession.getSwapRequestId());
         
-        // Fetch user details for names
-        try {
-            User initiator = userRepository.findById(callSession.getInitiatorId()).orElse(null);
-            if (initiator != null) {
-                dto.setInitiatorName(initiator.getName());
-                dto.setInitiatorUsername(initiator.getUsername());
-            }
-            
-            User receiver = userRepository.findById(callSession.getReceiverId()).orElse(null);
-            if (receiver != null) {
-                dto.setReceiverName(receiver.getName());
-                dto.setReceiverUsername(receiver.getUsername());
-            }
-        } catch (Exception e) {
-            // Handle case where users might not exist
-            System.err.println("Error fetching user details for call session: " + e.getMessage());
+        User initiator = users.get(callSession.getInitiatorId());
+        if (initiator != null) {
+            dto.setInitiatorName(initiator.getName());
+            dto.setInitiatorUsername(initiator.getUsername());
         }
-        
+
+        User receiver = users.get(callSession.getReceiverId());
+        if (receiver != null) {
+            dto.setReceiverName(receiver.getName());
+            dto.setReceiverUsername(receiver.getUsername());
+        }
+
         return dto;
     }
 
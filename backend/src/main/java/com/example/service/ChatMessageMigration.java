@@ -0,0 +1,150 @@
+package com.example.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.model.ChatMessage;
+import com.example.model.User;
+import com.example.repository.ChatMessageRepository;
+import com.example.repository.ChatMessageRepositoryCustom.LegacyChatMessage;
+import com.example.repository.ChatMessageRepositoryCustom.LegacyScope;
+import com.example.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Online rewrite of chat messages from the old DBRef layout (sender, receiver,
+ * swapRequest) to plain ids plus the sender's display name. Runs in the background in
+ * _id-ordered batches while the app serves traffic; until it finishes, chat reads first
+ * convert the legacy messages of the conversation or user they are about to load.
+ * Restarting simply continues, since only unconverted messages are selected.
+ */
+@Service
+public class ChatMessageMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageMigration.class);
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.chat.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.migration.batch-size:1000}")
+    private int batchSize;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong migrated = new AtomicLong();
+    private volatile boolean complete;
+    private volatile boolean shuttingDown;
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        runner.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /** Starts the background rewrite unless it is already running; returns false if it was. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        runner.execute(this::migrateAll);
+        return true;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        status.put("complete", complete);
+        status.put("migratedMessages", migrated.get());
+        return status;
+    }
+
+    public void migrateConversation(String swapRequestId) {
+        if (!complete) {
+            migrateScope(LegacyScope.SWAP_REQUEST, swapRequestId);
+        }
+    }
+
+    public void migrateParticipant(String userId) {
+        if (!complete) {
+            migrateScope(LegacyScope.PARTICIPANT, userId);
+        }
+    }
+
+    private void migrateAll() {
+        try {
+            long start = System.currentTimeMillis();
+            int converted;
+            do {
+                converted = migrateBatch(null, null);
+            } while (converted > 0 && !shuttingDown);
+            if (!shuttingDown) {
+                complete = true;
+                logger.info("Chat message migration complete: {} messages in {} ms",
+                        migrated.get(), System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            logger.error("Chat message migration failed after {} messages", migrated.get(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void migrateScope(LegacyScope scope, String scopeId) {
+        while (migrateBatch(scope, scopeId) > 0) {
+            // keep going until the scope has no legacy messages left
+        }
+    }
+
+    // Returns how many legacy messages were selected; 0 means the scope is done
+    private int migrateBatch(LegacyScope scope, String scopeId) {
+        List<LegacyChatMessage> batch = chatMessageRepository.findLegacyMessages(scope, scopeId, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<String> senderIds = new HashSet<>();
+        for (LegacyChatMessage message : batch) {
+            if (message.senderId() != null) {
+                senderIds.add(message.senderId());
+            }
+        }
+        Map<String, String> senderNames = new HashMap<>();
+        for (User sender : userRepository.findParticipantsByIdIn(senderIds)) {
+            senderNames.put(sender.getId(), ChatMessage.displayName(sender));
+        }
+        migrated.addAndGet(chatMessageRepository.rewriteLegacyMessages(batch, senderNames));
+        return batch.size();
+    }
+}
@@ -1,21 +1,36 @@
 package com.example.service;
 
 import com.example.dto.ChatMessageDto;
+import com.example.dto.ConversationSummaryDto;
+import com.example.dto.CursorPage;
+import com.example.event.UserStatsChangedEvent;
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.ChatMessage;
 import com.example.model.SwapRequest;
+import com.example.model.UnreadCounter;
 import com.example.model.User;
 import com.example.repository.ChatMessageRepository;
+import com.example.repository.ChatMessageRepositoryCustom.ConversationRow;
+import com.example.repository.UserRepository;
 import com.example.exception.BadRequestException;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ChatService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Autowired
     private ChatMessageRepository chatMessageRepository;
@@ -27,7 +42,22 @@ public class ChatService {
     private SwapService swapService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private RealtimePublisher realtimePublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ChatMessageMigration chatMessageMigration;
+
+    @Autowired
+    private UserHydrator userHydrator;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
 
     public ChatMessage sendMessage(String senderId, ChatMessageDto messageDto) {
         User sender = userService.findById(senderId);
@@ -38,50 +68,163 @@ public class ChatService {
             throw new BadRequestException("You can only send messages for your own swap requests");
         }
 
-        ChatMessage message = new ChatMessage();
-        message.setSender(sender);
-        message.setReceiver(receiver);
-        message.setSwapRequest(swapRequest);
-        message.setContent(messageDto.getContent());
+        ChatMessage message = new ChatMessage(sender, receiver.getId(), swapRequest.getId(), messageDto.getContent());
         message.setType(messageDto.getType());
 
         ChatMessage savedMessage = chatMessageRepository.save(message);
+        if (userRepository.incrementMessagesSent(senderId)) {
+            eventPublisher.publishEvent(new UserStatsChangedEvent(senderId, UserStatsChangedEvent.TOTAL_MESSAGES));
+        }
+        unreadCounterService.messageReceived(receiver.getId(), receiver.getUsername(), swapRequest.getId());
 
         // Send message via WebSocket
-        messagingTemplate.convertAndSendToUser(
-                receiver.getUsername(),
-                "/queue/messages",
-                savedMessage
-        );
+        realtimePublisher.sendToUser(receiver.getUsername(), "/queue/messages", savedMessage);
 
         return savedMessage;
     }
 
-    public List<ChatMessage> getSwapMessages(String swapRequestId, String userId) {
+    /**
+     * One page of a swap conversation, always in chronological order. With no cursor the
+     * newest messages are returned; "before" loads older history and "after" catches up
+     * on newer messages. The next cursor continues in the same direction.
+     */
+    public CursorPage<ChatMessage> getSwapMessages(String swapRequestId, String userId,
+                                                   String before, String after, int limit) {
         SwapRequest swapRequest = swapService.findSwapRequestById(swapRequestId);
         if (!swapRequest.getRequesterId().equals(userId) && !swapRequest.getRequestedUserId().equals(userId)) {
             throw new BadRequestException("You can only view messages for your own swap requests");
         }
-        return chatMessageRepository.findBySwapRequestOrderByCreatedAtAsc(swapRequest);
+        if (before != null && after != null) {
+            throw new BadRequestException("Use either 'before' or 'after', not both");
+        }
+        chatMessageMigration.migrateConversation(swapRequestId);
+
+        int size = pageSize(limit);
+        boolean older = after == null;
+        Cursor cursor = parseCursor(older ? before : after);
+        List<ChatMessage> rows = chatMessageRepository.findConversationPage(
+                swapRequestId, cursor == null ? null : cursor.createdAt(), cursor == null ? null : cursor.id(),
+                older, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<ChatMessage> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = hasMore ? toCursor(page.get(page.size() - 1)) : null;
+        if (older) {
+            Collections.reverse(page);
+        }
+        return new CursorPage<>(page, nextCursor);
     }
 
-    public List<ChatMessage> getUserMessages(String userId) {
-        User user = userService.findById(userId);
-        return chatMessageRepository.findBySenderOrReceiverOrderByCreatedAtDesc(user, user);
+    // Everything the user sent or received, newest first
+    public CursorPage<ChatMessage> getUserMessages(String userId, String before, int limit) {
+        chatMessageMigration.migrateParticipant(userId);
+        int size = pageSize(limit);
+        Cursor cursor = parseCursor(before);
+        List<ChatMessage> rows = chatMessageRepository.findUserMessagesBefore(
+                userId, cursor == null ? null : cursor.createdAt(), cursor == null ? null : cursor.id(), size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<ChatMessage> page = hasMore ? rows.subList(0, size) : rows;
+        return new CursorPage<>(page, hasMore ? toCursor(page.get(page.size() - 1)) : null);
     }
 
-    public void markMessageAsRead(String messageId, String userId) {
+    public List<ConversationSummaryDto> getConversations(String userId, int limit) {
+        chatMessageMigration.migrateParticipant(userId);
+        List<ConversationRow> rows = chatMessageRepository.findConversations(userId, pageSize(limit));
+        Map<String, User> others = userHydrator.loadParticipants(rows, row -> otherParticipant(row, userId));
+
+        List<ConversationSummaryDto> conversations = new ArrayList<>(rows.size());
+        for (ConversationRow row : rows) {
+            String otherUserId = otherParticipant(row, userId);
+            conversations.add(new ConversationSummaryDto(row.swapRequestId(), otherUserId, others.get(otherUserId),
+                    row.lastMessage(), row.unreadCount()));
+        }
+        return conversations;
+    }
+
+    public void markMessageAsRead(String messageId, String userId, String username) {
+        ChatMessage updated = chatMessageRepository.markRead(messageId, userId);
+        if (updated != null) {
+            unreadCounterService.messagesRead(userId, username, updated.getSwapRequestId(), 1);
+            return;
+        }
+        // Nothing changed: explain why, or it was already read
         ChatMessage message = chatMessageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found"));
-        if (!message.getReceiver().getId().equals(userId)) {
+        if (!userId.equals(message.getReceiverId())) {
             throw new BadRequestException("You can only mark your own messages as read");
         }
-        message.setRead(true);
-        chatMessageRepository.save(message);
     }
 
+    /**
+     * Marks the user's unread messages in a conversation as read up to and including the
+     * given message (the newest message when none is given) with one updateMany, and
+     * decrements the unread counters by the number actually changed.
+     */
+    public UnreadCounter markConversationRead(String swapRequestId, String userId, String username, String upToMessageId) {
+        SwapRequest swapRequest = swapService.findSwapRequestById(swapRequestId);
+        if (!swapRequest.getRequesterId().equals(userId) && !swapRequest.getRequestedUserId().equals(userId)) {
+            throw new BadRequestException("You can only read messages for your own swap requests");
+        }
+        chatMessageMigration.migrateConversation(swapRequestId);
+
+        ChatMessage upTo;
+        if (upToMessageId != null) {
+            upTo = chatMessageRepository.findById(upToMessageId)
+                    .filter(message -> swapRequestId.equals(message.getSwapRequestId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Message not found in this conversation"));
+        } else {
+            List<ChatMessage> newest = chatMessageRepository.findConversationPage(swapRequestId, null, null, true, 1);
+            if (newest.isEmpty()) {
+                return unreadCounterService.getCounter(userId);
+            }
+            upTo = newest.get(0);
+        }
+
+        long marked = chatMessageRepository.markReadUpTo(swapRequestId, userId, upTo.getCreatedAt(), upTo.getId());
+        return unreadCounterService.messagesRead(userId, username, swapRequestId, marked);
+    }
+
+    // Single document read instead of a count over chat_messages
     public long getUnreadMessageCount(String userId) {
-        User user = userService.findById(userId);
-        return chatMessageRepository.countByReceiverAndIsReadFalse(user);
+        return unreadCounterService.getCounter(userId).getTotal();
+    }
+
+    public UnreadCounter getUnreadCounters(String userId) {
+        return unreadCounterService.getCounter(userId);
+    }
+
+    private static String otherParticipant(ConversationRow row, String userId) {
+        ChatMessage message = row.lastMessage();
+        return userId.equals(message.getSenderId()) ? message.getReceiverId() : message.getSenderId();
+    }
+
+    private static int pageSize(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Keyset position "<createdAt epoch millis>:<message id>"
+    private record Cursor(LocalDateTime createdAt, String id) {}
+
+    public static String toCursor(ChatMessage message) {
+        long millis = message.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return millis + ":" + message.getId();
+    }
+
+    private static Cursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            int separator = cursor.indexOf(':');
+            long millis = Long.parseLong(cursor.substring(0, separator));
+            String id = cursor.substring(separator + 1);
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException(id);
+            }
+            return new Cursor(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()), id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
     }
 }
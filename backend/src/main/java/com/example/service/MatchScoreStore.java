@@ -0,0 +1,272 @@
+package com.example.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.MatchScore;
+import com.example.model.User;
+import com.example.repository.MatchScoreRepository;
+import com.example.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Precomputed match scores keyed by (viewer, target), held in a bounded LRU cache and
+ * backed by match_scores. Only pairs that were actually served are persisted, and
+ * stored pairs expire unless a recompute refreshes them, so the collection tracks what
+ * users look at rather than every candidate pair. When a profile or its stats change
+ * the user's cached scores are dropped and only the stored pairs involving them are
+ * recomputed, off the request thread.
+ * Reads touching a user with a pending recompute fall back to scoring fresh.
+ */
+@Service
+public class MatchScoreStore {
+    private static final Logger logger = LoggerFactory.getLogger(MatchScoreStore.class);
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MatchScorer matchScorer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.match-scores.cache-size:200000}")
+    private int maxCachedScores;
+
+    private Map<String, Integer> cache;
+
+    // Users with queued recomputes, and when the oldest of them was queued
+    private final Map<String, DirtyMark> dirtyUsers = new ConcurrentHashMap<>();
+
+    private final ExecutorService recomputeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "match-score-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Scores for a batch of targets. computedTargetIds are the ones that were scored
+     * fresh instead of found in the cache or the collection; see {@link #persistServed}.
+     */
+    public record ScoreBatch(Map<String, Integer> scores, Set<String> computedTargetIds) {}
+
+    @PostConstruct
+    public void registerMetrics() {
+        // Access-ordered, so the least recently read score is evicted first
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxCachedScores;
+            }
+        });
+        Gauge.builder("match_scores.cache.size", cache, Map::size)
+                .description("Match scores held in memory")
+                .register(meterRegistry);
+        Gauge.builder("match_scores.stale.users", dirtyUsers, Map::size)
+                .description("Users whose stored match scores are waiting to be recomputed")
+                .register(meterRegistry);
+        Gauge.builder("match_scores.staleness.seconds", this, MatchScoreStore::oldestStalenessSeconds)
+                .description("Age of the oldest pending match score recompute")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        recomputeExecutor.shutdown();
+        recomputeExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Score of target from viewerId's point of view; the target document is already loaded by the caller
+    public int getScore(String viewerId, User target) {
+        String key = MatchScore.key(viewerId, target.getId());
+        if (!isDirty(viewerId) && !isDirty(target.getId())) {
+            Integer cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            Optional<MatchScore> stored = matchScoreRepository.findById(key);
+            if (stored.isPresent()) {
+                cache.put(key, stored.get().getScore());
+                return stored.get().getScore();
+            }
+        }
+
+        User viewer = userRepository.findScoringFieldsByIdIn(List.of(viewerId)).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        MatchScore score = new MatchScore(viewerId, target.getId(), matchScorer.calculateMatchPercentage(viewer, target));
+        matchScoreRepository.save(score);
+        cache.put(key, score.getScore());
+        return score.getScore();
+    }
+
+    // Scores for a batch of already-loaded targets: cache first, then one findAllById for
+    // the misses, then scoring. Nothing is written here; callers persist what they serve.
+    public ScoreBatch getScores(User viewer, Collection<User> targets) {
+        boolean viewerDirty = isDirty(viewer.getId());
+        Map<String, Integer> scores = new HashMap<>(targets.size() * 2);
+        Map<String, User> missing = new HashMap<>();
+        for (User target : targets) {
+            if (viewerDirty || isDirty(target.getId())) {
+                missing.put(target.getId(), target);
+                continue;
+            }
+            Integer cached = cache.get(MatchScore.key(viewer.getId(), target.getId()));
+            if (cached != null) {
+                scores.put(target.getId(), cached);
+            } else {
+                missing.put(target.getId(), target);
+            }
+        }
+
+        if (!viewerDirty && !missing.isEmpty()) {
+            List<String> keys = new ArrayList<>(missing.size());
+            for (User target : missing.values()) {
+                if (!isDirty(target.getId())) {
+                    keys.add(MatchScore.key(viewer.getId(), target.getId()));
+                }
+            }
+            for (MatchScore stored : matchScoreRepository.findAllById(keys)) {
+                cache.put(stored.getId(), stored.getScore());
+                scores.put(stored.getTargetId(), stored.getScore());
+                missing.remove(stored.getTargetId());
+            }
+        }
+
+        for (User target : missing.values()) {
+            int score = matchScorer.calculateMatchPercentage(viewer, target);
+            cache.put(MatchScore.key(viewer.getId(), target.getId()), score);
+            scores.put(target.getId(), score);
+        }
+        return new ScoreBatch(scores, missing.keySet());
+    }
+
+    // Persists the freshly computed scores among those returned to the viewer, in one write
+    public void persistServed(String viewerId, ScoreBatch batch, Collection<String> servedTargetIds) {
+        List<MatchScore> served = new ArrayList<>();
+        for (String targetId : servedTargetIds) {
+            Integer score = batch.scores().get(targetId);
+            if (score != null && batch.computedTargetIds().contains(targetId)) {
+                served.add(new MatchScore(viewerId, targetId, score));
+            }
+        }
+        if (!served.isEmpty()) {
+            matchScoreRepository.saveAll(served);
+        }
+    }
+
+    // Skills or location changed: both directions of every stored pair are affected
+    public void onProfileChanged(String userId) {
+        scheduleRecompute(userId, false);
+    }
+
+    // Rating or swap count changed: only pairs where the user is the target are affected
+    public void onStatsChanged(String userId) {
+        scheduleRecompute(userId, true);
+    }
+
+    public double oldestStalenessSeconds() {
+        long now = System.nanoTime();
+        return dirtyUsers.values().stream()
+                .mapToLong(mark -> now - mark.since())
+                .max()
+                .orElse(0L) / 1_000_000_000.0;
+    }
+
+    private void scheduleRecompute(String userId, boolean asTargetOnly) {
+        dirtyUsers.compute(userId, (id, mark) -> mark == null
+                ? new DirtyMark(System.nanoTime(), 1)
+                : new DirtyMark(mark.since(), mark.pending() + 1));
+        recomputeExecutor.execute(() -> {
+            try {
+                recompute(userId, asTargetOnly);
+            } catch (Exception e) {
+                logger.error("Failed to recompute match scores for user {}: {}", userId, e.getMessage());
+            } finally {
+                dirtyUsers.computeIfPresent(userId, (id, mark) ->
+                        mark.pending() <= 1 ? null : new DirtyMark(mark.since(), mark.pending() - 1));
+            }
+        });
+    }
+
+    private void recompute(String userId, boolean asTargetOnly) {
+        evictCached(userId, asTargetOnly);
+        List<MatchScore> affected = asTargetOnly
+                ? matchScoreRepository.findByTargetId(userId)
+                : matchScoreRepository.findByViewerIdOrTargetId(userId, userId);
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (MatchScore score : affected) {
+            ids.add(score.getViewerId());
+            ids.add(score.getTargetId());
+        }
+        Map<String, User> users = new HashMap<>();
+        userRepository.findScoringFieldsByIdIn(ids).forEach(user -> users.put(user.getId(), user));
+
+        List<MatchScore> updated = new ArrayList<>(affected.size());
+        List<MatchScore> orphaned = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (MatchScore score : affected) {
+            User viewer = users.get(score.getViewerId());
+            User target = users.get(score.getTargetId());
+            if (viewer == null || target == null) {
+                orphaned.add(score);
+                cache.remove(score.getId());
+                continue;
+            }
+            score.setScore(matchScorer.calculateMatchPercentage(viewer, target));
+            score.setComputedAt(now);
+            updated.add(score);
+            cache.put(score.getId(), score.getScore());
+        }
+        matchScoreRepository.saveAll(updated);
+        if (!orphaned.isEmpty()) {
+            matchScoreRepository.deleteAll(orphaned);
+        }
+        logger.debug("Recomputed {} match scores for user {}", updated.size(), userId);
+    }
+
+    // The cache also holds pairs that were scored but never served, or whose stored document
+    // has expired; recompute can't find those in the collection, so they are dropped here
+    private void evictCached(String userId, boolean asTargetOnly) {
+        String asViewer = userId + ":";
+        String asTarget = ":" + userId;
+        cache.keySet().removeIf(key -> key.endsWith(asTarget) || (!asTargetOnly && key.startsWith(asViewer)));
+    }
+
+    private boolean isDirty(String userId) {
+        return dirtyUsers.containsKey(userId);
+    }
+
+    private record DirtyMark(long since, int pending) {}
+}
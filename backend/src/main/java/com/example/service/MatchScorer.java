@@ -0,0 +1,78 @@
+package com.example.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.model.Skill;
+import com.example.model.SkillLevel;
+import com.example.model.User;
+
+// Match percentage of otherUser from currentUser's point of view. Skills and location
+// are compared on both sides; rating and activity only use otherUser's stats.
+@Component
+public class MatchScorer {
+
+    public int calculateMatchPercentage(User currentUser, User otherUser) {
+        int totalPoints = 0;
+        int maxPoints = 100;
+
+        // Skill match: 50 points max
+        int skillMatchPoints = 0;
+        List<String> currentWanted = currentUser.getWantedSkills() != null ? currentUser.getWantedSkills() : List.of();
+        List<Skill> otherOffered = otherUser.getOfferedSkills() != null ? otherUser.getOfferedSkills() : List.of();
+        List<Skill> currentOffered = currentUser.getOfferedSkills() != null ? currentUser.getOfferedSkills() : List.of();
+        List<String> otherWanted = otherUser.getWantedSkills() != null ? otherUser.getWantedSkills() : List.of();
+
+        Map<String, Integer> offeredPoints = new HashMap<>();
+        for (Skill offered : otherOffered) {
+            String key = SkillDictionary.keyOf(offered);
+            if (key != null) {
+                int points = offered.getLevel() == SkillLevel.EXPERT ? 20 : offered.getLevel() == SkillLevel.INTERMEDIATE ? 15 : 10;
+                offeredPoints.merge(key, points, Integer::sum);
+            }
+        }
+        for (String wanted : currentWanted) {
+            String key = SkillIndex.normalize(wanted);
+            if (key != null) {
+                skillMatchPoints += offeredPoints.getOrDefault(key, 0);
+            }
+        }
+
+        Set<String> currentOfferedNames = new HashSet<>();
+        for (Skill offered : currentOffered) {
+            String key = SkillDictionary.keyOf(offered);
+            if (key != null) {
+                currentOfferedNames.add(key);
+            }
+        }
+        for (String wanted : otherWanted) {
+            if (currentOfferedNames.contains(SkillIndex.normalize(wanted))) {
+                skillMatchPoints += 10;
+            }
+        }
+        skillMatchPoints = Math.min(skillMatchPoints, 50);
+        totalPoints += skillMatchPoints;
+
+        // Location match: 20 points max
+        if (currentUser.getLocation() != null && otherUser.getLocation() != null &&
+                currentUser.getLocation().equalsIgnoreCase(otherUser.getLocation())) {
+            totalPoints += 20;
+        }
+
+        // Rating match: 20 points max
+        double rating = otherUser.getStats().getAverageRating();
+        totalPoints += rating > 0 ? (int) (rating * 4) : 0;
+
+        // Activity match: 10 points max
+        if (otherUser.getStats().getTotalSwaps() > 0) {
+            totalPoints += Math.min(otherUser.getStats().getTotalSwaps(), 10);
+        }
+
+        return Math.min(totalPoints, maxPoints);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserStatsChangedEvent;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for profile views. Views are counted in memory per user and
+ * written as a single unordered bulk of $inc operations, either on a fixed interval
+ * or once enough views are pending. A stats event, and with it a badge evaluation,
+ * is only published for users whose flushed total crossed the minimum of some badge
+ * rule on profileViews, as currently compiled by BadgeRuleEngine.
+ */
+@Component
+public class ProfileViewBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileViewBuffer.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.profile-views.flush-threshold:1000}")
+    private long flushThreshold;
+
+    @Autowired
+    private BadgeRuleEngine badgeRuleEngine;
+
+    // Entries stay once created, so an increment can never land on a counter that was dropped
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LongAdder pending = new LongAdder();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-view-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("profile_views.pending", pending, LongAdder::sum)
+                .description("Profile views counted in memory but not yet written")
+                .register(meterRegistry);
+    }
+
+    public void record(String userId) {
+        counters.computeIfAbsent(userId, id -> new LongAdder()).increment();
+        pending.increment();
+        if (pending.sum() >= flushThreshold && flushQueued.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.profile-views.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    public synchronized void flush() {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            long views = counter.getValue().sumThenReset();
+            if (views > 0) {
+                deltas.put(counter.getKey(), (int) views);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        long flushed = deltas.values().stream().mapToLong(Integer::longValue).sum();
+
+        try {
+            userRepository.incrementProfileViews(deltas);
+        } catch (Exception e) {
+            // Put the views back so the next flush retries them
+            deltas.forEach((userId, views) -> counters.computeIfAbsent(userId, id -> new LongAdder()).add(views));
+            logger.error("Failed to flush {} profile views: {}", flushed, e.getMessage());
+            return;
+        }
+        pending.add(-flushed);
+        logger.debug("Flushed {} profile views for {} users", flushed, deltas.size());
+
+        int[] badgeThresholds = badgeRuleEngine.thresholdsFor(UserStatsChangedEvent.PROFILE_VIEWS);
+        if (badgeThresholds.length > 0) {
+            checkBadgeThresholds(deltas, badgeThresholds);
+        }
+    }
+
+    private void checkBadgeThresholds(Map<String, Integer> deltas, int[] badgeThresholds) {
+        for (User user : userRepository.findProfileViewsByIdIn(deltas.keySet())) {
+            int total = user.getStats().getProfileViews();
+            int previous = total - deltas.get(user.getId());
+            if (crossesThreshold(badgeThresholds, previous, total)) {
+                eventPublisher.publishEvent(new UserStatsChangedEvent(user.getId(), UserStatsChangedEvent.PROFILE_VIEWS));
+            }
+        }
+    }
+
+    private static boolean crossesThreshold(int[] badgeThresholds, int previous, int total) {
+        for (int threshold : badgeThresholds) {
+            if (previous < threshold && total >= threshold) {
+                return true;
+            }
+            if (threshold > total) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -3,15 +3,18 @@ package com.example.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.dto.RatingDto;
+import com.example.event.UserStatsChangedEvent;
 import com.example.exception.BadRequestException;
 import com.example.model.Rating;
 import com.example.model.SwapRequest;
 import com.example.model.SwapStatus;
 import com.example.model.User;
 import com.example.repository.RatingRepository;
+import com.example.repository.UserRepository;
 
 @Service
 public class RatingService {
@@ -26,7 +29,13 @@ public class RatingService {
     private UserService userService;
 
     @Autowired
-    private BadgeService badgeService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MatchScoreStore matchScoreStore;
+
+    @Autowired
+    private UserRepository userRepository;
 
     public Rating createRating(String raterId, RatingDto ratingDto) {
         User rater = userService.findById(raterId);
@@ -54,10 +63,6 @@ public class RatingService {
 
         Rating saved = ratingRepository.save(rating);
         updateUserRating(rated);
-        
-        // Check for badges after rating is created
-        badgeService.checkAndAwardBadges(rated.getId());
-        
         return saved;
     }
 
@@ -73,9 +78,11 @@ public class RatingService {
     }
 
     private void updateUserRating(User user) {
+        // Average comes from the ratings collection; the count is an atomic $inc
         Double avg = getUserAverageRating(user.getId());
-        user.getStats().setAverageRating(avg);
-        user.getStats().setTotalRatings(user.getStats().getTotalRatings() + 1);
-        userService.save(user);
+        userRepository.recordRating(user.getId(), avg);
+        matchScoreStore.onStatsChanged(user.getId());
+        eventPublisher.publishEvent(new UserStatsChangedEvent(user.getId(),
+                UserStatsChangedEvent.TOTAL_RATINGS, UserStatsChangedEvent.AVERAGE_RATING));
     }
 }
@@ -0,0 +1,110 @@
+package com.example.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single entry point for pushing messages to users over STOMP. Each message is stamped
+ * with its publish time so delivery latency can be measured where it leaves the node
+ * (see WebSocketFanoutMetrics), whether it went through the in-memory broker or the relay.
+ * State snapshots that supersede each other, such as unread counts, can be coalesced:
+ * within a short window only the latest one per user and destination is sent.
+ */
+@Component
+public class RealtimePublisher {
+    private static final Logger logger = LoggerFactory.getLogger(RealtimePublisher.class);
+
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.coalesce-window-ms:250}")
+    private long coalesceWindowMs;
+
+    private record Target(String username, String destination) {}
+
+    private final Map<Target, Object> pendingSnapshots = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService coalescer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ws-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter published;
+    private Counter coalesced;
+
+    @PostConstruct
+    public void registerMetrics() {
+        published = Counter.builder("websocket.fanout.published")
+                .description("User messages handed to the broker")
+                .register(meterRegistry);
+        coalesced = Counter.builder("websocket.fanout.coalesced")
+                .description("Snapshots replaced by a newer one before being sent")
+                .register(meterRegistry);
+        Gauge.builder("websocket.fanout.pending_snapshots", pendingSnapshots, Map::size)
+                .description("Coalesced snapshots waiting for their window to close")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.shutdownNow();
+    }
+
+    public void sendToUser(String username, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(username, destination, payload,
+                Map.of(PUBLISHED_AT_HEADER, Long.toString(System.currentTimeMillis())));
+        published.increment();
+    }
+
+    /**
+     * Sends a snapshot that makes any earlier one for the same user and destination
+     * obsolete. Bursts collapse to a single frame, sent at most one window after the first.
+     */
+    public void sendLatestToUser(String username, String destination, Object snapshot) {
+        if (coalesceWindowMs <= 0) {
+            sendToUser(username, destination, snapshot);
+            return;
+        }
+        Target target = new Target(username, destination);
+        if (pendingSnapshots.put(target, snapshot) != null) {
+            coalesced.increment();
+            return;
+        }
+        // First snapshot of the window schedules the send; later ones just replace it
+        coalescer.schedule(() -> flush(target), coalesceWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush(Target target) {
+        Object snapshot = pendingSnapshots.remove(target);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            sendToUser(target.username(), target.destination(), snapshot);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to push {} to {}: {}", target.destination(), target.username(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.ReportJob;
+import com.example.repository.ReportJobRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs admin reports as background jobs. Results are persisted in report_jobs and a
+ * completed job serves as the cached report for its type until it expires, so repeated
+ * requests within the TTL never recompute. At most one job per report type is in
+ * flight across all instances (enforced by the unique inFlightKey); concurrent requests
+ * attach to it, polling the collection when another instance runs it. The running
+ * instance renews a lease on its jobs, and only jobs whose lease has expired are failed
+ * as abandoned. The standard reports can be precomputed on a schedule so the cache is
+ * warm before anyone asks.
+ */
+@Service
+public class ReportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final List<ReportJob.Status> IN_FLIGHT = List.of(ReportJob.Status.QUEUED, ReportJob.Status.RUNNING);
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+
+    // Unfinished or failed jobs are kept around for inspection, then left to the TTL index
+    private static final Duration RETENTION = Duration.ofDays(1);
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.admin.reports.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Value("${app.admin.reports.workers:2}")
+    private int workerCount;
+
+    @Value("${app.admin.reports.precompute-enabled:true}")
+    private boolean precomputeEnabled;
+
+    @Value("${app.admin.reports.precompute-types:USER_ACTIVITY,SWAP_STATS,FEEDBACK}")
+    private List<ReportJob.Type> precomputeTypes;
+
+    @Value("${app.admin.reports.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.admin.reports.remote-poll-ms:1000}")
+    private long remotePollMs;
+
+    // Identifies this process as the owner of the jobs it runs
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private ExecutorService workers;
+    private final Map<ReportJob.Type, Timer> generationTimers = new EnumMap<>(ReportJob.Type.class);
+    private final Map<ReportJob.Type, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private record InFlight(String jobId, CompletableFuture<ReportJob> future) {}
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "report-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ReportJob.Type type : ReportJob.Type.values()) {
+            generationTimers.put(type, Timer.builder("reports.generation")
+                    .description("Time to compute an admin report")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("reports.jobs.in_flight", inFlight, Map::size)
+                .description("Report jobs queued or running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.reports.lease-renew-interval-ms:20000}")
+    public void renewLeases() {
+        LocalDateTime until = LocalDateTime.now().plus(Duration.ofMillis(leaseMs));
+        for (InFlight running : inFlight.values()) {
+            // Jobs attached to from another instance don't match the owner and are skipped
+            reportJobRepository.renewLease(running.jobId(), instanceId, until);
+        }
+    }
+
+    // Jobs whose owner stopped renewing their lease will never complete; close them out
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.admin.reports.lease-check-interval-ms:30000}",
+               initialDelayString = "${app.admin.reports.lease-check-interval-ms:30000}")
+    public void failAbandonedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportJob job : reportJobRepository.findExpiredLeases(now)) {
+            if (reportJobRepository.failExpiredJob(job.getId(), now, "Abandoned: lease expired", now.plus(RETENTION))) {
+                logger.warn("Failed report job {} owned by {}: lease expired", job.getId(), job.getOwner());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.reports.precompute-interval-ms:600000}",
+               initialDelayString = "${app.admin.reports.precompute-initial-delay-ms:60000}")
+    public void precompute() {
+        if (!precomputeEnabled) {
+            return;
+        }
+        for (ReportJob.Type type : precomputeTypes) {
+            submit(type, "scheduler", true);
+        }
+    }
+
+    /**
+     * Returns the cached job for the type if it is still fresh, otherwise attaches to the
+     * job already computing it or queues a new one. With refresh, the cache is bypassed.
+     */
+    public ReportJob submit(ReportJob.Type type, String requestedBy, boolean refresh) {
+        if (!refresh) {
+            ReportJob cached = findFresh(type);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String runningJobId;
+        synchronized (this) {
+            InFlight running = inFlight.get(type);
+            if (running == null) {
+                return dispatch(type, requestedBy).job;
+            }
+            runningJobId = running.jobId();
+        }
+        return getJob(runningJobId);
+    }
+
+    /**
+     * Completes with the report body once available: immediately from cache, or when the
+     * in-flight job finishes. No request thread waits on the computation.
+     */
+    public CompletableFuture<Map<String, Object>> getReport(ReportJob.Type type, String requestedBy) {
+        ReportJob cached = findFresh(type);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getResult());
+        }
+        CompletableFuture<ReportJob> future;
+        synchronized (this) {
+            InFlight running = inFlight.get(type);
+            future = running != null ? running.future() : dispatch(type, requestedBy).future;
+        }
+        return future.thenApply(job -> {
+            if (job.getStatus() != ReportJob.Status.COMPLETED) {
+                throw new RuntimeException("Report generation failed: " + job.getError());
+            }
+            return job.getResult();
+        });
+    }
+
+    public ReportJob getJob(String jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job not found: " + jobId));
+    }
+
+    // Accepts the path form used by the report endpoints, e.g. "user-activity"
+    public ReportJob.Type parseType(String value) {
+        try {
+            return ReportJob.Type.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown report type: " + value);
+        }
+    }
+
+    private ReportJob findFresh(ReportJob.Type type) {
+        return reportJobRepository.findFirstByTypeAndStatusAndExpiresAtAfterOrderByCompletedAtDesc(
+                type, ReportJob.Status.COMPLETED, LocalDateTime.now()).orElse(null);
+    }
+
+    private record Dispatched(ReportJob job, CompletableFuture<ReportJob> future) {}
+
+    // Callers hold the monitor, so this instance dispatches at most one job per type; the
+    // unique inFlightKey turns a second instance's attempt into attaching to the first
+    private Dispatched dispatch(ReportJob.Type type, String requestedBy) {
+        ReportJob job = new ReportJob(type, requestedBy);
+        job.setExpiresAt(job.getCreatedAt().plus(RETENTION));
+        job.setOwner(instanceId);
+        job.setLeaseExpiresAt(job.getCreatedAt().plus(Duration.ofMillis(leaseMs)));
+        job.setInFlightKey(type.name());
+        try {
+            job = reportJobRepository.insert(job);
+        } catch (DuplicateKeyException e) {
+            ReportJob running = reportJobRepository.findFirstByTypeAndStatusInOrderByCreatedAtDesc(type, IN_FLIGHT)
+                    .orElse(null);
+            if (running == null) {
+                // The other instance finished in the meantime
+                ReportJob fresh = findFresh(type);
+                if (fresh == null) {
+                    throw new RuntimeException("Report " + type + " is already being generated");
+                }
+                return new Dispatched(fresh, CompletableFuture.completedFuture(fresh));
+            }
+            CompletableFuture<ReportJob> future = awaitRemote(running.getId());
+            InFlight attached = new InFlight(running.getId(), future);
+            inFlight.put(type, attached);
+            future.whenComplete((result, error) -> inFlight.remove(type, attached));
+            return new Dispatched(running, future);
+        }
+
+        CompletableFuture<ReportJob> future = new CompletableFuture<>();
+        inFlight.put(type, new InFlight(job.getId(), future));
+        String jobId = job.getId();
+        workers.execute(() -> run(jobId, future));
+        return new Dispatched(job, future);
+    }
+
+    // Completes once a job run by another instance finishes, or is failed for an expired lease
+    private CompletableFuture<ReportJob> awaitRemote(String jobId) {
+        return CompletableFuture.supplyAsync(() -> getJob(jobId),
+                        CompletableFuture.delayedExecutor(remotePollMs, TimeUnit.MILLISECONDS, workers))
+                .thenCompose(job -> job.isFinished() ? CompletableFuture.completedFuture(job) : awaitRemote(jobId));
+    }
+
+    private void run(String jobId, CompletableFuture<ReportJob> future) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            future.completeExceptionally(new ResourceNotFoundException("Report job not found: " + jobId));
+            return;
+        }
+        try {
+            job.setStatus(ReportJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setLeaseExpiresAt(job.getStartedAt().plus(Duration.ofMillis(leaseMs)));
+            job = reportJobRepository.save(job);
+
+            ReportJob.Type type = job.getType();
+            long start = System.nanoTime();
+            Map<String, Object> report = generationTimers.get(type).recordCallable(() -> generate(type));
+            job.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            // Stored as plain maps and lists in the same shape the endpoints serialize
+            job = finish(job, objectMapper.convertValue(report, RESULT_TYPE), null);
+        } catch (Exception e) {
+            logger.error("Report job {} failed", jobId, e);
+            job = finish(job, null, e.getMessage());
+        } finally {
+            inFlight.remove(job.getType());
+            future.complete(job);
+        }
+    }
+
+    private ReportJob finish(ReportJob job, Map<String, Object> result, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setCompletedAt(now);
+        job.setInFlightKey(null);
+        if (error == null) {
+            job.setStatus(ReportJob.Status.COMPLETED);
+            job.setResult(result);
+            job.setExpiresAt(now.plusMinutes(ttlMinutes));
+        } else {
+            job.setStatus(ReportJob.Status.FAILED);
+            job.setError(error);
+            job.setExpiresAt(now.plus(RETENTION));
+        }
+        return reportJobRepository.save(job);
+    }
+
+    private Map<String, Object> generate(ReportJob.Type type) {
+        return switch (type) {
+            case USER_ACTIVITY -> adminService.generateUserActivityReport();
+            case SWAP_STATS -> adminService.generateSwapStatsReport();
+            case FEEDBACK -> adminService.generateFeedbackReport();
+        };
+    }
+}
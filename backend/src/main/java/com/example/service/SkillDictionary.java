@@ -0,0 +1,367 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserProfileChangedEvent;
+import com.example.model.Skill;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+
+/**
+ * Dictionary of every skill offered or wanted by public users, stored in a compressed
+ * (radix) trie with usage counts. Each distinct normalized skill gets a stable integer
+ * id for the life of the process, so matching can compare ids instead of strings.
+ * Trie nodes cache their top completions; a count change only clears the caches on
+ * that skill's path.
+ */
+@Component
+public class SkillDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(SkillDictionary.class);
+
+    public static final int UNKNOWN_SKILL = -1;
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<SkillEntry> BY_POPULARITY = Comparator
+            .comparingInt(SkillEntry::getCount).reversed()
+            .thenComparing(SkillEntry::getKey);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Node root = new Node("");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SkillEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    // Skill keys each user currently contributes, so profile changes can be diffed
+    private final Map<String, Set<String>> contributions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<User> users = userRepository.findIndexableUsers();
+        users.forEach(this::update);
+        logger.info("Skill dictionary built with {} skills from {} users", entries.size(), users.size());
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        update(event.getUser());
+    }
+
+    public synchronized void update(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        Map<String, String> displayNames = new HashMap<>();
+        if (user.isPublic() && user.isActive() && !user.isBanned()) {
+            if (user.getOfferedSkills() != null) {
+                for (Skill skill : user.getOfferedSkills()) {
+                    collect(skill.getName(), keyOf(skill), current, displayNames);
+                }
+            }
+            if (user.getWantedSkills() != null) {
+                for (String skill : user.getWantedSkills()) {
+                    collect(skill, normalize(skill), current, displayNames);
+                }
+            }
+        }
+
+        Set<String> previous = contributions.getOrDefault(user.getId(), Set.of());
+        for (String key : previous) {
+            if (!current.contains(key)) {
+                adjust(entries.get(key), -1);
+            }
+        }
+        for (String key : current) {
+            if (!previous.contains(key)) {
+                adjust(entryFor(key, displayNames.get(key)), 1);
+            }
+        }
+        if (current.isEmpty()) {
+            contributions.remove(user.getId());
+        } else {
+            contributions.put(user.getId(), current);
+        }
+    }
+
+    // Stable id of a skill name, or UNKNOWN_SKILL if no user has ever listed it
+    public int canonicalId(String skill) {
+        return idOfKey(normalize(skill));
+    }
+
+    // Same as canonicalId for a key that is already normalized, e.g. one stored with the skill
+    public int idOfKey(String key) {
+        SkillEntry entry = key == null ? null : entries.get(key);
+        return entry == null ? UNKNOWN_SKILL : entry.getId();
+    }
+
+    /**
+     * Whether a stored key is the skill resolved once up front as key / id. Known skills
+     * compare ids; a skill not in the dictionary yet falls back to comparing keys.
+     */
+    public boolean sameSkill(String storedKey, String key, int id) {
+        if (storedKey == null || key == null) {
+            return false;
+        }
+        return id != UNKNOWN_SKILL ? idOfKey(storedKey) == id : key.equals(storedKey);
+    }
+
+    public List<SkillEntry> suggest(String prefix, int limit) {
+        String key = prefix == null ? "" : collapseWhitespace(prefix).toLowerCase(Locale.ROOT);
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            List<SkillEntry> top = node.topCompletions();
+            return top.size() <= size ? top : top.subList(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String normalize(String skill) {
+        if (skill == null) {
+            return null;
+        }
+        String key = collapseWhitespace(skill);
+        return key.isEmpty() ? null : key.toLowerCase(Locale.ROOT);
+    }
+
+    // Key written with a skill, or the normalized name for documents stored before keys were
+    public static String keyOf(String storedKey, String name) {
+        return storedKey != null ? storedKey : normalize(name);
+    }
+
+    public static String keyOf(Skill skill) {
+        return keyOf(skill.getKey(), skill.getName());
+    }
+
+    public static void assignKeys(List<Skill> skills) {
+        if (skills != null) {
+            skills.forEach(skill -> skill.setKey(normalize(skill.getName())));
+        }
+    }
+
+    // Trimmed, with inner whitespace runs collapsed to one space; a single pass, no regex
+    private static String collapseWhitespace(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = result.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    result.append(' ');
+                    pendingSpace = false;
+                }
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static void collect(String skill, String key, Set<String> keys, Map<String, String> displayNames) {
+        if (key != null) {
+            keys.add(key);
+            displayNames.putIfAbsent(key, collapseWhitespace(skill));
+        }
+    }
+
+    private SkillEntry entryFor(String key, String displayName) {
+        SkillEntry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        lock.writeLock().lock();
+        try {
+            return entries.computeIfAbsent(key, k -> {
+                SkillEntry entry = new SkillEntry(nextId.getAndIncrement(), k, displayName);
+                insert(entry);
+                return entry;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(SkillEntry entry, int delta) {
+        if (entry == null) {
+            return;
+        }
+        entry.count.addAndGet(delta);
+        lock.readLock().lock();
+        try {
+            // Invalidate cached completions on the path to this skill. Bumping the version
+            // rather than clearing the cache also voids completions being computed right now
+            // from the old count, which would otherwise be published after the clear
+            Node node = root;
+            String rest = entry.getKey();
+            node.invalidate();
+            while (!rest.isEmpty()) {
+                node = node.children.get(rest.charAt(0));
+                if (node == null) {
+                    return;
+                }
+                node.invalidate();
+                rest = rest.substring(node.label.length());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void insert(SkillEntry entry) {
+        Node node = root;
+        String rest = entry.getKey();
+        while (true) {
+            node.invalidate();
+            if (rest.isEmpty()) {
+                node.entry = entry;
+                return;
+            }
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                Node leaf = new Node(rest);
+                leaf.entry = entry;
+                node.children.put(rest.charAt(0), leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                // Split the edge: node -> middle -> child
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+    }
+
+    // Node whose subtree holds every key starting with prefix; the prefix may end inside an edge
+    private Node find(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common == rest.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record TopCompletions(int version, List<SkillEntry> entries) {}
+
+    private static final class Node {
+        private String label;
+        private SkillEntry entry;
+        private final Map<Character, Node> children = new HashMap<>();
+        // Bumped on every change below this node; a cached list is only valid for the
+        // version that was current when its computation started
+        private final AtomicInteger version = new AtomicInteger();
+        private volatile TopCompletions topCache;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void invalidate() {
+            version.incrementAndGet();
+        }
+
+        List<SkillEntry> topCompletions() {
+            int current = version.get();
+            TopCompletions cached = topCache;
+            if (cached != null && cached.version() == current) {
+                return cached.entries();
+            }
+            PriorityQueue<SkillEntry> top = new PriorityQueue<>(MAX_SUGGESTIONS + 1, BY_POPULARITY.reversed());
+            collectTop(this, top);
+            List<SkillEntry> result = new ArrayList<>(top);
+            result.sort(BY_POPULARITY);
+            List<SkillEntry> entries = List.copyOf(result);
+            topCache = new TopCompletions(current, entries);
+            return entries;
+        }
+
+        private static void collectTop(Node node, PriorityQueue<SkillEntry> top) {
+            if (node.entry != null && node.entry.getCount() > 0) {
+                top.offer(node.entry);
+                if (top.size() > MAX_SUGGESTIONS) {
+                    top.poll();
+                }
+            }
+            for (Node child : node.children.values()) {
+                collectTop(child, top);
+            }
+        }
+    }
+
+    public static final class SkillEntry {
+        private final int id;
+        private final String key;
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        SkillEntry(int id, String key, String name) {
+            this.id = id;
+            this.key = key;
+            this.name = name;
+        }
+
+        public int getId() { return id; }
+        public String getKey() { return key; }
+        public String getName() { return name; }
+        public int getCount() { return count.get(); }
+    }
+}
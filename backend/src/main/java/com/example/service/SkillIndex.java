@@ -0,0 +1,172 @@
+package com.example.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserProfileChangedEvent;
+import com.example.model.Skill;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+
+/**
+ * In-memory inverted index from normalized skill name (and location) to the ids
+ * of public, active users offering or wanting it. Used to narrow match scoring
+ * down to users that share something with the caller instead of scanning the
+ * whole users collection.
+ */
+@Component
+public class SkillIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SkillIndex.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, Set<String>> offeredBy = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> wantedBy = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byLocation = new ConcurrentHashMap<>();
+
+    // What each user is currently indexed under, so re-indexing can remove stale keys
+    private final Map<String, IndexedKeys> entries = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<User> users = userRepository.findIndexableUsers();
+        users.forEach(this::index);
+        logger.info("Skill index built for {} users", users.size());
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        index(event.getUser());
+    }
+
+    // Add or refresh a user's entries; non-public or inactive users are dropped
+    public synchronized void index(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        remove(user.getId());
+        if (!user.isPublic() || !user.isActive() || user.isBanned()) {
+            return;
+        }
+
+        IndexedKeys keys = new IndexedKeys();
+        if (user.getOfferedSkills() != null) {
+            for (Skill skill : user.getOfferedSkills()) {
+                String key = SkillDictionary.keyOf(skill);
+                if (key != null) {
+                    keys.offered.add(key);
+                }
+            }
+        }
+        if (user.getWantedSkills() != null) {
+            for (String skill : user.getWantedSkills()) {
+                String key = normalize(skill);
+                if (key != null) {
+                    keys.wanted.add(key);
+                }
+            }
+        }
+        keys.location = normalize(user.getLocation());
+
+        keys.offered.forEach(key -> add(offeredBy, key, user.getId()));
+        keys.wanted.forEach(key -> add(wantedBy, key, user.getId()));
+        if (keys.location != null) {
+            add(byLocation, keys.location, user.getId());
+        }
+        entries.put(user.getId(), keys);
+    }
+
+    public synchronized void remove(String userId) {
+        IndexedKeys keys = entries.remove(userId);
+        if (keys == null) {
+            return;
+        }
+        keys.offered.forEach(key -> delete(offeredBy, key, userId));
+        keys.wanted.forEach(key -> delete(wantedBy, key, userId));
+        if (keys.location != null) {
+            delete(byLocation, keys.location, userId);
+        }
+    }
+
+    /**
+     * Ids of users offering something the given user wants, wanting something
+     * they offer, or sharing their location. The user themselves is excluded.
+     */
+    public Set<String> findCandidates(User user) {
+        Set<String> candidates = new HashSet<>();
+        if (user.getWantedSkills() != null) {
+            for (String skill : user.getWantedSkills()) {
+                candidates.addAll(getOfferedBy(skill));
+            }
+        }
+        if (user.getOfferedSkills() != null) {
+            for (Skill skill : user.getOfferedSkills()) {
+                candidates.addAll(getWantedBy(skill.getName()));
+            }
+        }
+        String location = normalize(user.getLocation());
+        if (location != null) {
+            candidates.addAll(byLocation.getOrDefault(location, Collections.emptySet()));
+        }
+        candidates.remove(user.getId());
+        return candidates;
+    }
+
+    public Set<String> getOfferedBy(String skill) {
+        String key = normalize(skill);
+        return key == null ? Collections.emptySet() : offeredBy.getOrDefault(key, Collections.emptySet());
+    }
+
+    public Set<String> getWantedBy(String skill) {
+        String key = normalize(skill);
+        return key == null ? Collections.emptySet() : wantedBy.getOrDefault(key, Collections.emptySet());
+    }
+
+    // Normalized skills a user is indexed as offering / wanting; empty if not indexed
+    public Set<String> getOfferedKeys(String userId) {
+        IndexedKeys keys = entries.get(userId);
+        return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys.offered);
+    }
+
+    public Set<String> getWantedKeys(String userId) {
+        IndexedKeys keys = entries.get(userId);
+        return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys.wanted);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String normalize(String value) {
+        return SkillDictionary.normalize(value);
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String userId) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private static void delete(Map<String, Set<String>> index, String key, String userId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(userId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static class IndexedKeys {
+        private final Set<String> offered = new HashSet<>();
+        private final Set<String> wanted = new HashSet<>();
+        private String location;
+    }
+}
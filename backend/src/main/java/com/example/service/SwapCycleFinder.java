@@ -0,0 +1,175 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.dto.SwapCycleDto;
+import com.example.model.Skill;
+import com.example.model.User;
+
+/**
+ * Finds multi-party swap rings through a user on the "A offers what B wants" graph.
+ * Edges are never materialized: they are read from the SkillIndex, so a profile update
+ * only changes that user's entries there. The search is a depth-limited DFS bounded by
+ * an expansion budget, a per-node branching cap and a wall-clock budget.
+ */
+@Service
+public class SwapCycleFinder {
+    public static final int MIN_CYCLE_SIZE = 3;
+    public static final int MAX_CYCLE_SIZE = 5;
+
+    @Autowired
+    private SkillIndex skillIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.swap-cycles.max-expansions:20000}")
+    private int maxExpansions;
+
+    @Value("${app.swap-cycles.max-branching:64}")
+    private int maxBranching;
+
+    @Value("${app.swap-cycles.time-budget-ms:200}")
+    private long timeBudgetMs;
+
+    public List<SwapCycleDto> findCycles(String userId, int maxSize, int limit) {
+        User user = userService.findById(userId);
+        Set<String> offered = new HashSet<>();
+        if (user.getOfferedSkills() != null) {
+            for (Skill skill : user.getOfferedSkills()) {
+                String key = SkillDictionary.keyOf(skill);
+                if (key != null) {
+                    offered.add(key);
+                }
+            }
+        }
+        Set<String> wanted = new HashSet<>();
+        if (user.getWantedSkills() != null) {
+            for (String skill : user.getWantedSkills()) {
+                String key = SkillIndex.normalize(skill);
+                if (key != null) {
+                    wanted.add(key);
+                }
+            }
+        }
+
+        // Users that can close the ring by teaching the caller something they want
+        Set<String> closers = new HashSet<>();
+        wanted.forEach(skill -> closers.addAll(skillIndex.getOfferedBy(skill)));
+        closers.remove(userId);
+        if (offered.isEmpty() || closers.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int size = Math.max(MIN_CYCLE_SIZE, Math.min(maxSize, MAX_CYCLE_SIZE));
+        Search search = new Search(userId, offered, wanted, closers, size, limit);
+        search.extend(offered);
+        return search.results;
+    }
+
+    private class Search {
+        private final String rootId;
+        private final Set<String> rootOffered;
+        private final Set<String> rootWanted;
+        private final Set<String> closers;
+        private final int maxSize;
+        private final int limit;
+        private final long deadline;
+
+        private final List<String> path = new ArrayList<>();
+        private final Set<String> onPath = new HashSet<>();
+        private final List<SwapCycleDto> results = new ArrayList<>();
+        private int expansions;
+
+        Search(String rootId, Set<String> rootOffered, Set<String> rootWanted, Set<String> closers, int maxSize, int limit) {
+            this.rootId = rootId;
+            this.rootOffered = rootOffered;
+            this.rootWanted = rootWanted;
+            this.closers = closers;
+            this.maxSize = maxSize;
+            this.limit = limit;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+            path.add(rootId);
+            onPath.add(rootId);
+        }
+
+        void extend(Set<String> nodeOffered) {
+            for (String next : neighbours(nodeOffered)) {
+                if (exhausted()) {
+                    return;
+                }
+                if (onPath.contains(next)) {
+                    continue;
+                }
+                expansions++;
+                int newSize = path.size() + 1;
+                boolean last = newSize == maxSize;
+                boolean closes = closers.contains(next);
+                if (last && !closes) {
+                    continue;
+                }
+
+                path.add(next);
+                onPath.add(next);
+                if (closes && newSize >= MIN_CYCLE_SIZE) {
+                    results.add(toCycle());
+                }
+                if (!last) {
+                    extend(skillIndex.getOfferedKeys(next));
+                }
+                onPath.remove(next);
+                path.remove(path.size() - 1);
+            }
+        }
+
+        // Users wanting any of the given skills, capped so popular skills can't blow up the search
+        private Set<String> neighbours(Set<String> offeredSkills) {
+            Set<String> neighbours = new LinkedHashSet<>();
+            for (String skill : offeredSkills) {
+                for (String candidate : skillIndex.getWantedBy(skill)) {
+                    neighbours.add(candidate);
+                    if (neighbours.size() >= maxBranching) {
+                        return neighbours;
+                    }
+                }
+            }
+            return neighbours;
+        }
+
+        private boolean exhausted() {
+            return results.size() >= limit
+                    || expansions >= maxExpansions
+                    || System.nanoTime() > deadline;
+        }
+
+        private SwapCycleDto toCycle() {
+            List<SwapCycleDto.Leg> legs = new ArrayList<>(path.size());
+            for (int i = 0; i < path.size(); i++) {
+                String from = path.get(i);
+                String to = path.get((i + 1) % path.size());
+                legs.add(new SwapCycleDto.Leg(from, to, sharedSkill(from, to)));
+            }
+            return new SwapCycleDto(legs);
+        }
+
+        private String sharedSkill(String from, String to) {
+            Set<String> offered = from.equals(rootId) ? rootOffered : skillIndex.getOfferedKeys(from);
+            Set<String> wanted = to.equals(rootId) ? rootWanted : skillIndex.getWantedKeys(to);
+            for (String skill : offered) {
+                if (wanted.contains(skill)) {
+                    return skill;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -4,9 +4,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.dto.SwapRequestDto;
+import com.example.event.UserStatsChangedEvent;
 import com.example.exception.BadRequestException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.SwapRequest;
@@ -25,7 +27,16 @@ public class SwapService {
     private UserRepository userRepository;
 
     @Autowired
-    private BadgeService badgeService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MatchScoreStore matchScoreStore;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private AdminCountersService adminCountersService;
 
     public SwapRequest createSwapRequest(String requesterId, SwapRequestDto dto) {
         User requester = userRepository.findById(requesterId)
@@ -33,10 +44,16 @@ public class SwapService {
         User requestedUser = userRepository.findById(dto.getRequestedUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Requested user not found"));
 
+        // Resolve the requested skills once; stored skills carry the key they were written with
+        String requesterSkillKey = SkillDictionary.normalize(dto.getRequesterSkill());
+        String requestedSkillKey = SkillDictionary.normalize(dto.getRequestedSkill());
+        int requesterSkillId = skillDictionary.idOfKey(requesterSkillKey);
+        int requestedSkillId = skillDictionary.idOfKey(requestedSkillKey);
+
         boolean requesterHasSkill = requester.getOfferedSkills().stream()
-                .anyMatch(skill -> skill.getName().equalsIgnoreCase(dto.getRequesterSkill()));
+                .anyMatch(skill -> skillDictionary.sameSkill(SkillDictionary.keyOf(skill), requesterSkillKey, requesterSkillId));
         boolean requestedUserHasSkill = requestedUser.getOfferedSkills().stream()
-                .anyMatch(skill -> skill.getName().equalsIgnoreCase(dto.getRequestedSkill()));
+                .anyMatch(skill -> skillDictionary.sameSkill(SkillDictionary.keyOf(skill), requestedSkillKey, requestedSkillId));
 
         if (!requesterHasSkill || !requestedUserHasSkill) {
             throw new BadRequestException("Invalid skills specified in swap request");
@@ -46,8 +63,10 @@ public class SwapService {
         boolean duplicateExists = swapRequestRepository.findByRequesterIdAndStatus(requesterId, SwapStatus.PENDING)
             .stream()
             .anyMatch(swap -> swap.getRequestedUserId().equals(dto.getRequestedUserId())
-                && swap.getRequesterSkill().equalsIgnoreCase(dto.getRequesterSkill())
-                && swap.getRequestedSkill().equalsIgnoreCase(dto.getRequestedSkill()));
+                && skillDictionary.sameSkill(SkillDictionary.keyOf(swap.getRequesterSkillKey(), swap.getRequesterSkill()),
+                        requesterSkillKey, requesterSkillId)
+                && skillDictionary.sameSkill(SkillDictionary.keyOf(swap.getRequestedSkillKey(), swap.getRequestedSkill()),
+                        requestedSkillKey, requestedSkillId));
         if (duplicateExists) {
             throw new BadRequestException("You have already sent a pending swap request for this skill pair to this user.");
         }
@@ -57,10 +76,14 @@ public class SwapService {
         request.setRequestedUserId(dto.getRequestedUserId());
         request.setRequesterSkill(dto.getRequesterSkill());
         request.setRequestedSkill(dto.getRequestedSkill());
+        request.setRequesterSkillKey(requesterSkillKey);
+        request.setRequestedSkillKey(requestedSkillKey);
         request.setMessage(dto.getMessage());
         request.setSuperSwap(dto.isSuperSwap());
 
-        return swapRequestRepository.save(request);
+        SwapRequest saved = swapRequestRepository.save(request);
+        adminCountersService.swapCreated(saved.getStatus());
+        return saved;
     }
 
     public SwapRequest updateSwapRequestStatus(String swapId, SwapStatus status, String userId) {
@@ -97,34 +120,26 @@ public class SwapService {
             throw new BadRequestException("Invalid status update");
         }
 
+        SwapStatus previousStatus = swapRequest.getStatus();
         swapRequest.setStatus(status);
         swapRequest.setUpdatedAt(LocalDateTime.now());
-        SwapRequest savedSwap = swapRequestRepository.save(swapRequest);
-        
-        // Check for badges after status update
-        if (status == SwapStatus.COMPLETED) {
-            badgeService.checkAndAwardBadges(swapRequest.getRequesterId());
-            badgeService.checkAndAwardBadges(swapRequest.getRequestedUserId());
-        }
-        
-        return savedSwap;
+        SwapRequest saved = swapRequestRepository.save(swapRequest);
+        adminCountersService.swapStatusChanged(previousStatus, status);
+        return saved;
     }
 
     private void updateUserStatsOnCompletion(SwapRequest swapRequest) {
-        // Update requester stats
-        User requester = userRepository.findById(swapRequest.getRequesterId()).orElse(null);
-        if (requester != null) {
-            requester.getStats().setTotalSwaps(requester.getStats().getTotalSwaps() + 1);
-            requester.getStats().setCompletedSwaps(requester.getStats().getCompletedSwaps() + 1);
-            userRepository.save(requester);
-        }
-        
-        // Update requested user stats
-        User requestedUser = userRepository.findById(swapRequest.getRequestedUserId()).orElse(null);
-        if (requestedUser != null) {
-            requestedUser.getStats().setTotalSwaps(requestedUser.getStats().getTotalSwaps() + 1);
-            requestedUser.getStats().setCompletedSwaps(requestedUser.getStats().getCompletedSwaps() + 1);
-            userRepository.save(requestedUser);
+        // Atomic $inc on both participants; concurrent completions can't lose updates
+        incrementCompletedSwaps(swapRequest.getRequesterId());
+        incrementCompletedSwaps(swapRequest.getRequestedUserId());
+    }
+
+    private void incrementCompletedSwaps(String userId) {
+        if (userRepository.incrementCompletedSwaps(userId)) {
+            matchScoreStore.onStatsChanged(userId);
+            // Badges are evaluated asynchronously by BadgeEvaluationQueue
+            eventPublisher.publishEvent(new UserStatsChangedEvent(userId,
+                    UserStatsChangedEvent.TOTAL_SWAPS, UserStatsChangedEvent.COMPLETED_SWAPS));
         }
     }
 
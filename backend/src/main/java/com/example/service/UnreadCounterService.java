@@ -0,0 +1,78 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.example.model.UnreadCounter;
+import com.example.repository.ChatMessageRepository;
+import com.example.repository.UnreadCounterRepository;
+
+/**
+ * Per-user unread chat counters (total and per swap conversation). Sending a message
+ * increments the receiver's counter and marking messages read decrements it by the number
+ * of messages actually changed, both with a single $inc. A user without a counter document
+ * gets one rebuilt from chat_messages on first use. Every change is pushed to the user
+ * on /user/queue/unread.
+ */
+@Service
+public class UnreadCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    @Autowired
+    private UnreadCounterRepository unreadCounterRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ChatMessageMigration chatMessageMigration;
+
+    @Autowired
+    private RealtimePublisher realtimePublisher;
+
+    public UnreadCounter getCounter(String userId) {
+        return unreadCounterRepository.findById(userId).orElseGet(() -> rebuild(userId));
+    }
+
+    // Call after the message is saved, so a rebuild triggered here already counts it
+    public void messageReceived(String userId, String username, String swapRequestId) {
+        UnreadCounter counter = unreadCounterRepository.adjust(userId, swapRequestId, 1);
+        if (counter == null) {
+            counter = rebuild(userId);
+        }
+        push(username, counter);
+    }
+
+    public UnreadCounter messagesRead(String userId, String username, String swapRequestId, long count) {
+        if (count <= 0) {
+            return getCounter(userId);
+        }
+        UnreadCounter counter = unreadCounterRepository.adjust(userId, swapRequestId, -count);
+        if (counter == null) {
+            counter = rebuild(userId);
+        }
+        push(username, counter);
+        return counter;
+    }
+
+    private UnreadCounter rebuild(String userId) {
+        chatMessageMigration.migrateParticipant(userId);
+        UnreadCounter counter = new UnreadCounter(userId, chatMessageRepository.countUnreadBySwap(userId));
+        try {
+            return unreadCounterRepository.insert(counter);
+        } catch (DuplicateKeyException e) {
+            // A concurrent rebuild got there first; its counts are just as current
+            logger.debug("Unread counter for {} already rebuilt", userId);
+            return unreadCounterRepository.findById(userId).orElse(counter);
+        }
+    }
+
+    private void push(String username, UnreadCounter counter) {
+        if (username != null) {
+            realtimePublisher.sendLatestToUser(username, "/queue/unread", counter);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.model.SwapRequest;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+
+/**
+ * Attaches participant users to a batch of rows with a single $in query instead of
+ * one findById per row. Loaded users only carry the display fields (id, name,
+ * username, profile photo, location).
+ */
+@Component
+public class UserHydrator {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Distinct non-null ids extracted from the rows, loaded in one query and keyed by id
+    @SafeVarargs
+    public final <T> Map<String, User> loadParticipants(Collection<T> rows, Function<T, String>... idExtractors) {
+        Set<String> ids = new HashSet<>();
+        for (T row : rows) {
+            for (Function<T, String> extractor : idExtractors) {
+                String id = extractor.apply(row);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        return loadParticipants(ids);
+    }
+
+    public Map<String, User> loadParticipants(Collection<String> ids) {
+        Map<String, User> users = new HashMap<>();
+        if (ids.isEmpty()) {
+            return users;
+        }
+        userRepository.findParticipantsByIdIn(ids).forEach(user -> users.put(user.getId(), user));
+        return users;
+    }
+
+    public List<SwapRequest> hydrateSwapRequests(List<SwapRequest> swapRequests) {
+        Map<String, User> users = loadParticipants(swapRequests,
+                SwapRequest::getRequesterId, SwapRequest::getRequestedUserId);
+        for (SwapRequest swap : swapRequests) {
+            swap.setRequester(users.get(swap.getRequesterId()));
+            swap.setRequestedUser(users.get(swap.getRequestedUserId()));
+        }
+        return swapRequests;
+    }
+}
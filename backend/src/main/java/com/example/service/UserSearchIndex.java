@@ -0,0 +1,252 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.UserProfileChangedEvent;
+import com.example.model.Skill;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+
+/**
+ * Token and n-gram index over the searchable profile fields of public, active users.
+ * Every token is indexed under all of its 1- to 3-character substrings, so a query
+ * token of up to three characters resolves with a single lookup and longer ones by
+ * intersecting their trigrams. Results are ranked by match quality and field weight.
+ */
+@Component
+public class UserSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    public static final int NAME = 1;
+    public static final int USERNAME = 1 << 1;
+    public static final int OFFERED_SKILL = 1 << 2;
+    public static final int WANTED_SKILL = 1 << 3;
+    public static final int LOCATION = 1 << 4;
+    public static final int SKILL = OFFERED_SKILL | WANTED_SKILL;
+    public static final int ALL_FIELDS = NAME | USERNAME | SKILL | LOCATION;
+
+    private static final int MAX_GRAM = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // token -> (userId -> bitmask of fields containing the token)
+    private final Map<String, Map<String, Integer>> postings = new ConcurrentHashMap<>();
+
+    // n-gram -> tokens containing it
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+
+    // userId -> tokens the user is indexed under, for removal
+    private final Map<String, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<User> users = userRepository.findIndexableUsers();
+        users.forEach(this::index);
+        logger.info("User search index built for {} users, {} tokens", users.size(), postings.size());
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        index(event.getUser());
+    }
+
+    public synchronized void index(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        remove(user.getId());
+        if (!user.isPublic() || !user.isActive() || user.isBanned()) {
+            return;
+        }
+
+        Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, user.getName(), NAME);
+        addTokens(tokens, user.getUsername(), USERNAME);
+        if (user.getOfferedSkills() != null) {
+            for (Skill skill : user.getOfferedSkills()) {
+                addTokens(tokens, skill.getName(), OFFERED_SKILL);
+            }
+        }
+        if (user.getWantedSkills() != null) {
+            for (String skill : user.getWantedSkills()) {
+                addTokens(tokens, skill, WANTED_SKILL);
+            }
+        }
+        addTokens(tokens, user.getLocation(), LOCATION);
+
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            Map<String, Integer> users = postings.computeIfAbsent(token.getKey(), key -> {
+                for (String gram : gramsOf(key)) {
+                    grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+                return new ConcurrentHashMap<>();
+            });
+            users.put(user.getId(), token.getValue());
+        }
+        documents.put(user.getId(), tokens);
+    }
+
+    public synchronized void remove(String userId) {
+        Map<String, Integer> tokens = documents.remove(userId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens.keySet()) {
+            Map<String, Integer> users = postings.get(token);
+            if (users == null) {
+                continue;
+            }
+            users.remove(userId);
+            if (users.isEmpty()) {
+                postings.remove(token);
+                for (String gram : gramsOf(token)) {
+                    grams.computeIfPresent(gram, (g, owners) -> {
+                        owners.remove(token);
+                        return owners.isEmpty() ? null : owners;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Ranked user ids matching every token of the query in at least one of the given
+     * fields. Paging is keyset-based on (score desc, id asc): pass the last hit of the
+     * previous page as `after`, or null for the first page. At most `limit` hits are returned.
+     */
+    public List<Hit> search(String query, int fields, String excludedId, Hit after, int limit) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Rarest token first keeps the running intersection small
+        queryTokens.sort(Comparator.comparingInt(token -> matchingTokens(token).size()));
+
+        Map<String, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<String, Integer> tokenScores = new HashMap<>();
+            for (String token : matchingTokens(queryToken)) {
+                int quality = token.equals(queryToken) ? 3 : token.startsWith(queryToken) ? 2 : 1;
+                Map<String, Integer> users = postings.getOrDefault(token, Collections.emptyMap());
+                for (Map.Entry<String, Integer> posting : users.entrySet()) {
+                    if (scores != null && !scores.containsKey(posting.getKey())) {
+                        continue;
+                    }
+                    int matchedFields = posting.getValue() & fields;
+                    if (matchedFields != 0) {
+                        tokenScores.merge(posting.getKey(), quality * weight(matchedFields), Math::max);
+                    }
+                }
+            }
+            if (scores != null) {
+                for (Map.Entry<String, Integer> score : tokenScores.entrySet()) {
+                    score.setValue(score.getValue() + scores.get(score.getKey()));
+                }
+            }
+            scores = tokenScores;
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Bounded selection of the next page instead of sorting every hit
+        Comparator<Hit> ranking = Comparator.comparingInt(Hit::score).reversed().thenComparing(Hit::userId);
+        PriorityQueue<Hit> page = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Map.Entry<String, Integer> score : scores.entrySet()) {
+            Hit hit = new Hit(score.getKey(), score.getValue());
+            if (hit.userId().equals(excludedId) || (after != null && ranking.compare(hit, after) <= 0)) {
+                continue;
+            }
+            page.offer(hit);
+            if (page.size() > limit) {
+                page.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(page);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private Set<String> matchingTokens(String queryToken) {
+        if (queryToken.length() <= MAX_GRAM) {
+            return grams.getOrDefault(queryToken, Collections.emptySet());
+        }
+        Set<String> smallest = null;
+        for (int i = 0; i + MAX_GRAM <= queryToken.length(); i++) {
+            Set<String> candidates = grams.getOrDefault(queryToken.substring(i, i + MAX_GRAM), Collections.emptySet());
+            if (smallest == null || candidates.size() < smallest.size()) {
+                smallest = candidates;
+            }
+        }
+        Set<String> matches = new LinkedHashSet<>();
+        for (String token : smallest) {
+            if (token.contains(queryToken)) {
+                matches.add(token);
+            }
+        }
+        return matches;
+    }
+
+    private static int weight(int matchedFields) {
+        if ((matchedFields & (NAME | USERNAME)) != 0) {
+            return 5;
+        }
+        if ((matchedFields & SKILL) != 0) {
+            return 3;
+        }
+        return 1;
+    }
+
+    private static void addTokens(Map<String, Integer> tokens, String value, int field) {
+        for (String token : tokenize(value)) {
+            tokens.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}+#]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> gramsOf(String token) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int size = 1; size <= MAX_GRAM; size++) {
+            for (int i = 0; i + size <= token.length(); i++) {
+                result.add(token.substring(i, i + size));
+            }
+        }
+        return result;
+    }
+
+    public record Hit(String userId, int score) {}
+}
@@ -1,21 +1,33 @@
 // com.skillswap.service.UserService.java
 package com.example.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.example.dto.SearchDto;
+import com.example.dto.CursorPage;
 import com.example.dto.UserProfileDto;
 import com.example.dto.UserRegistrationDto;
+import com.example.dto.UserSummaryDto;
+import com.example.event.UserProfileChangedEvent;
 import com.example.exception.BadRequestException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.ProfileStats;
 import com.example.model.Skill;
-import com.example.model.SkillLevel;
 import com.example.model.User;
 import com.example.repository.UserRepository;
 
@@ -29,7 +41,29 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private BadgeService badgeService;
+    private SkillIndex skillIndex;
+
+    @Autowired
+    private MatchScoreStore matchScoreStore;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProfileViewBuffer profileViewBuffer;
+
+    @Autowired
+    private AdminCountersService adminCountersService;
+
+    public static final int DEFAULT_MATCH_LIMIT = 20;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Lowest possible _id, used as the cursor of the first page
+    private static final ObjectId MIN_OBJECT_ID = new ObjectId("000000000000000000000000");
 
     public User registerUser(UserRegistrationDto registrationDto) {
         if (userRepository.existsByUsername(registrationDto.getUsername())) {
@@ -48,13 +82,17 @@ public class UserService {
         user.setLocation(registrationDto.getLocation());
         user.setTagline(registrationDto.getTagline());
         user.setPublic(registrationDto.isPublic());
+        SkillDictionary.assignKeys(registrationDto.getOfferedSkills());
         user.setOfferedSkills(registrationDto.getOfferedSkills());
         user.setWantedSkills(registrationDto.getWantedSkills());
         user.setAvailability(registrationDto.getAvailability());
         user.setProfilePhoto(registrationDto.getProfilePhoto());
         user.setStats(new ProfileStats());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(saved));
+        adminCountersService.userRegistered();
+        return saved;
     }
 
     public User findByUsernameOrEmail(String usernameOrEmail) {
@@ -78,102 +116,130 @@ public class UserService {
 
     public UserProfileDto getUserProfileWithMatch(String id, String currentUserId) {
         User user = findById(id);
-        User currentUser = findById(currentUserId);
-        int matchPercentage = calculateMatchPercentage(currentUser, user);
+        int matchPercentage = matchScoreStore.getScore(currentUserId, user);
         return convertToDto(user, matchPercentage);
     }
 
     public User updateProfile(String id, UserProfileDto profileDto) {
-        User user = findById(id);
-
-        user.setName(profileDto.getName());
-        user.setLocation(profileDto.getLocation());
-        user.setTagline(profileDto.getTagline());
-        user.setPublic(profileDto.isPublic());
-        user.setOfferedSkills(profileDto.getOfferedSkills());
-        user.setWantedSkills(profileDto.getWantedSkills());
-        user.setAvailability(profileDto.getAvailability());
-        user.setProfilePhoto(profileDto.getProfilePhoto());
-
-        return userRepository.save(user);
+        User profile = new User();
+        profile.setName(profileDto.getName());
+        profile.setLocation(profileDto.getLocation());
+        profile.setTagline(profileDto.getTagline());
+        profile.setPublic(profileDto.isPublic());
+        SkillDictionary.assignKeys(profileDto.getOfferedSkills());
+        profile.setOfferedSkills(profileDto.getOfferedSkills());
+        profile.setWantedSkills(profileDto.getWantedSkills());
+        profile.setAvailability(profileDto.getAvailability());
+        profile.setProfilePhoto(profileDto.getProfilePhoto());
+
+        // Only the profile fields are written, so concurrent stats increments survive
+        User saved = userRepository.updateProfileFields(id, profile);
+        if (saved == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        eventPublisher.publishEvent(new UserProfileChangedEvent(saved));
+        matchScoreStore.onProfileChanged(saved.getId());
+        return saved;
     }
 
-    public List<UserProfileDto> searchUsers(SearchDto searchDto) {
-        List<User> users;
-        if (searchDto.getSkill() != null && !searchDto.getSkill().isEmpty()) {
-            if (searchDto.isWantedSkills()) {
-                users = userRepository.findByWantedSkillsContainingIgnoreCase(searchDto.getSkill());
-            } else {
-                users = userRepository.findByOfferedSkillsContainingIgnoreCase(searchDto.getSkill());
-            }
-        } else if (searchDto.getLocation() != null && !searchDto.getLocation().isEmpty()) {
-            users = userRepository.findByLocationContainingIgnoreCase(searchDto.getLocation());
+    // Free-text and skill search are served from the in-memory index; an empty search lists by _id
+    public CursorPage<UserSummaryDto> searchUsers(String query, String skill, String currentUserId,
+                                                  String cursor, int limit) {
+        int size = pageSize(limit);
+        String text;
+        int fields;
+        if (skill != null && !skill.isBlank()) {
+            text = skill;
+            fields = UserSearchIndex.OFFERED_SKILL;
+        } else if (query != null && !query.isBlank()) {
+            text = query;
+            fields = UserSearchIndex.ALL_FIELDS;
         } else {
-            users = userRepository.findByIsPublicTrueAndActiveTrue();
+            List<User> users = userRepository.findPublicSummariesAfter(
+                    parseCursor(cursor), toObjectId(currentUserId), keysetPage(size));
+            return toSummaryPage(users, size);
         }
 
-        return users.stream()
-                .map(user -> convertToDto(user, null))
-                .collect(Collectors.toList());
-    }
-
-    public List<User> searchUsers(String query, String skill, String currentUserId) {
-        List<User> users;
-        if (skill != null && !skill.isEmpty()) {
-            users = userRepository.findByOfferedSkillsContainingIgnoreCase(skill);
-        } else if (query != null && !query.isEmpty()) {
-            // Search by both name and username
-            List<User> nameResults = userRepository.findByNameContainingIgnoreCase(query);
-            List<User> usernameResults = userRepository.findByUsernameContainingIgnoreCase(query);
-            
-            // Combine and remove duplicates
-            users = new java.util.ArrayList<>();
-            users.addAll(nameResults);
-            for (User user : usernameResults) {
-                if (users.stream().noneMatch(u -> u.getId().equals(user.getId()))) {
-                    users.add(user);
-                }
+        List<UserSearchIndex.Hit> hits = userSearchIndex.search(text, fields, currentUserId, parseSearchCursor(cursor), size + 1);
+        boolean hasMore = hits.size() > size;
+        List<UserSearchIndex.Hit> page = hasMore ? hits.subList(0, size) : hits;
+
+        Map<String, User> users = new HashMap<>();
+        userRepository.findSummariesByIdIn(page.stream().map(UserSearchIndex.Hit::userId).collect(Collectors.toList()))
+                .forEach(user -> users.put(user.getId(), user));
+        List<UserSummaryDto> items = new ArrayList<>(page.size());
+        for (UserSearchIndex.Hit hit : page) {
+            User user = users.get(hit.userId());
+            if (user != null) {
+                items.add(UserSummaryDto.from(user));
             }
-        } else {
-            users = userRepository.findByIsPublicTrueAndActiveTrueAndBannedFalse();
         }
 
-        return users.stream()
-                .filter(user -> !user.getId().equals(currentUserId))
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            UserSearchIndex.Hit last = page.get(page.size() - 1);
+            nextCursor = last.score() + ":" + last.userId();
+        }
+        return new CursorPage<>(items, nextCursor);
     }
 
-    public List<User> getAvailableUsers(String currentUserId) {
-        return userRepository.findByIsPublicTrueAndActiveTrueAndBannedFalse()
-                .stream()
-                .filter(user -> !user.getId().equals(currentUserId))
-                .collect(Collectors.toList());
+    public CursorPage<UserSummaryDto> getAvailableUsers(String currentUserId, String cursor, int limit) {
+        int size = pageSize(limit);
+        List<User> users = userRepository.findPublicSummariesAfter(
+                parseCursor(cursor), toObjectId(currentUserId), keysetPage(size));
+        return toSummaryPage(users, size);
     }
 
-    public List<UserProfileDto> getAllPublicUsers() {
-        return userRepository.findByIsPublicTrueAndActiveTrue()
-                .stream()
-                .map(user -> convertToDto(user, null))
-                .collect(Collectors.toList());
+    public CursorPage<UserSummaryDto> getPublicUsers(String cursor, int limit) {
+        int size = pageSize(limit);
+        List<User> users = userRepository.findPublicSummariesAfter(parseCursor(cursor), MIN_OBJECT_ID, keysetPage(size));
+        return toSummaryPage(users, size);
     }
 
     public List<UserProfileDto> getPotentialMatches(String userId) {
+        return getPotentialMatches(userId, DEFAULT_MATCH_LIMIT);
+    }
+
+    // Scores only users sharing a skill or location with the caller and keeps the top `limit`
+    public List<UserProfileDto> getPotentialMatches(String userId, int limit) {
         User currentUser = findById(userId);
-        return userRepository.findByIsPublicTrueAndActiveTrue()
-                .stream()
-                .filter(user -> !user.getId().equals(userId))
-                .map(user -> convertToDto(user, calculateMatchPercentage(currentUser, user)))
-                .sorted((a, b) -> Integer.compare(b.getStats().getMatchPercentage(), a.getStats().getMatchPercentage()))
-                .collect(Collectors.toList());
+        Set<String> candidateIds = skillIndex.findCandidates(currentUser);
+        if (candidateIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Comparator<ScoredUser> byScore = Comparator.comparingInt(ScoredUser::score);
+        PriorityQueue<ScoredUser> top = new PriorityQueue<>(limit + 1, byScore);
+        MatchScoreStore.ScoreBatch batch = matchScoreStore.getScores(currentUser,
+                userRepository.findMatchFieldsByIdIn(candidateIds));
+        for (Map.Entry<String, Integer> score : batch.scores().entrySet()) {
+            top.offer(new ScoredUser(score.getKey(), score.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ScoredUser> ranked = new ArrayList<>(top);
+        ranked.sort(byScore.reversed());
+        matchScoreStore.persistServed(userId, batch,
+                ranked.stream().map(ScoredUser::userId).collect(Collectors.toList()));
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(ranked.stream().map(ScoredUser::userId).collect(Collectors.toList()))
+                .forEach(user -> users.put(user.getId(), user));
+
+        List<UserProfileDto> matches = new ArrayList<>(ranked.size());
+        for (ScoredUser scored : ranked) {
+            User user = users.get(scored.userId());
+            if (user != null) {
+                matches.add(convertToDto(user, scored.score()));
+            }
+        }
+        return matches;
     }
 
+    // Buffered and flushed in batches; badge checks run when a flush crosses a threshold
     public void incrementProfileViews(String userId) {
-        User user = findById(userId);
-        user.getStats().setProfileViews(user.getStats().getProfileViews() + 1);
-        userRepository.save(user);
-        
-        // Check for badges after profile view increment
-        badgeService.checkAndAwardBadges(userId);
+        profileViewBuffer.record(userId);
     }
 
     public void validateSkills(List<Skill> offeredSkills, List<String> wantedSkills) {
@@ -193,6 +259,50 @@ public class UserService {
         }
     }
 
+    private static int pageSize(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to tell whether another page follows
+    private static Pageable keysetPage(int size) {
+        return PageRequest.of(0, size + 1, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private static ObjectId parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return MIN_OBJECT_ID;
+        }
+        if (!ObjectId.isValid(cursor)) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new ObjectId(cursor);
+    }
+
+    // Search cursors are "score:userId" of the last hit on the previous page
+    private static UserSearchIndex.Hit parseSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.indexOf(':');
+        try {
+            return new UserSearchIndex.Hit(cursor.substring(separator + 1),
+                    Integer.parseInt(cursor.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private static ObjectId toObjectId(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id) : MIN_OBJECT_ID;
+    }
+
+    private static CursorPage<UserSummaryDto> toSummaryPage(List<User> users, int size) {
+        boolean hasMore = users.size() > size;
+        List<User> page = hasMore ? users.subList(0, size) : users;
+        String nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new CursorPage<>(page.stream().map(UserSummaryDto::from).collect(Collectors.toList()), nextCursor);
+    }
+
     private UserProfileDto convertToDto(User user, Integer matchPercentage) {
         UserProfileDto dto = new UserProfileDto();
         dto.setId(user.getId());
@@ -215,49 +325,5 @@ public class UserService {
         return dto;
     }
 
-    private int calculateMatchPercentage(User currentUser, User otherUser) {
-        int totalPoints = 0;
-        int maxPoints = 100;
-
-        // Skill match: 50 points max
-        int skillMatchPoints = 0;
-        List<String> currentWanted = currentUser.getWantedSkills() != null ? currentUser.getWantedSkills() : List.of();
-        List<Skill> otherOffered = otherUser.getOfferedSkills() != null ? otherUser.getOfferedSkills() : List.of();
-        List<String> currentOffered = currentUser.getOfferedSkills() != null
-                ? currentUser.getOfferedSkills().stream().map(Skill::getName).collect(Collectors.toList())
-                : List.of();
-        List<String> otherWanted = otherUser.getWantedSkills() != null ? otherUser.getWantedSkills() : List.of();
-
-        for (String wanted : currentWanted) {
-            for (Skill offered : otherOffered) {
-                if (offered.getName().equalsIgnoreCase(wanted)) {
-                    skillMatchPoints += offered.getLevel() == SkillLevel.EXPERT ? 20 : offered.getLevel() == SkillLevel.INTERMEDIATE ? 15 : 10;
-                }
-            }
-        }
-        for (String wanted : otherWanted) {
-            if (currentOffered.stream().anyMatch(offered -> offered.equalsIgnoreCase(wanted))) {
-                skillMatchPoints += 10;
-            }
-        }
-        skillMatchPoints = Math.min(skillMatchPoints, 50);
-        totalPoints += skillMatchPoints;
-
-        // Location match: 20 points max
-        if (currentUser.getLocation() != null && otherUser.getLocation() != null &&
-                currentUser.getLocation().equalsIgnoreCase(otherUser.getLocation())) {
-            totalPoints += 20;
-        }
-
-        // Rating match: 20 points max
-        double rating = otherUser.getStats().getAverageRating();
-        totalPoints += rating > 0 ? (int) (rating * 4) : 0;
-
-        // Activity match: 10 points max
-        if (otherUser.getStats().getTotalSwaps() > 0) {
-            totalPoints += Math.min(otherUser.getStats().getTotalSwaps(), 10);
-        }
-
-        return Math.min(totalPoints, maxPoints);
-    }
-}
\ No newline at end of file
+    private record ScoredUser(String userId, int score) {}
+}
@@ -0,0 +1,268 @@
+package com.example.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal STOMP 1.2 broker over TCP, standing in for RabbitMQ/ActiveMQ when testing
+ * app.websocket.broker.mode=relay. Every SEND is delivered as a MESSAGE to each
+ * subscription on the exact destination, across all connections, with the sender's
+ * headers carried over (the user-destination broadcast relies on that). No
+ * acknowledgements, transactions or heartbeats: CONNECTED always answers heart-beat 0,0.
+ * Destinations can be dropped to take a broadcast out of play in a test.
+ */
+class StompBrokerStandIn implements AutoCloseable {
+
+	private record Subscription(Connection connection, String id) {}
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "stomp-stand-in");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+	private final Set<String> droppedDestinations = ConcurrentHashMap.newKeySet();
+	private final List<String> sentDestinations = new CopyOnWriteArrayList<>();
+	private final List<Connection> open = new CopyOnWriteArrayList<>();
+	private final AtomicLong messageIds = new AtomicLong();
+
+	StompBrokerStandIn() throws IOException {
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		connections.execute(this::accept);
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	// SENDs to this destination are recorded but never delivered
+	void drop(String destination) {
+		droppedDestinations.add(destination);
+	}
+
+	// Destinations of every SEND received so far, in arrival order
+	List<String> getSentDestinations() {
+		return List.copyOf(sentDestinations);
+	}
+
+	boolean hasSubscription(String destinationPrefix) {
+		return subscriptions.entrySet().stream()
+				.anyMatch(entry -> entry.getKey().startsWith(destinationPrefix) && !entry.getValue().isEmpty());
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		open.forEach(Connection::close);
+		connections.shutdownNow();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Connection connection = new Connection(serverSocket.accept());
+				open.add(connection);
+				connections.execute(connection::serve);
+			} catch (IOException e) {
+				// closed
+			}
+		}
+	}
+
+	private void deliver(String destination, Map<String, String> headers, byte[] body) {
+		sentDestinations.add(destination);
+		if (droppedDestinations.contains(destination)) {
+			return;
+		}
+		for (Subscription subscription : subscriptions.getOrDefault(destination, List.of())) {
+			Map<String, String> messageHeaders = new LinkedHashMap<>();
+			messageHeaders.put("destination", destination);
+			messageHeaders.put("subscription", subscription.id());
+			messageHeaders.put("message-id", Long.toString(messageIds.incrementAndGet()));
+			headers.forEach((name, value) -> {
+				if (!name.equals("destination") && !name.equals("receipt") && !name.equals("content-length")) {
+					messageHeaders.putIfAbsent(name, value);
+				}
+			});
+			subscription.connection().write("MESSAGE", messageHeaders, body);
+		}
+	}
+
+	private class Connection {
+		private final Socket socket;
+		private final Map<String, String> destinationsById = new ConcurrentHashMap<>();
+
+		Connection(Socket socket) {
+			this.socket = socket;
+		}
+
+		void serve() {
+			try (socket) {
+				InputStream in = socket.getInputStream();
+				while (true) {
+					String command = readCommand(in);
+					if (command == null) {
+						return;
+					}
+					Map<String, String> headers = readHeaders(in);
+					byte[] body = readBody(in, headers.get("content-length"));
+					if (!handle(command, headers, body)) {
+						return;
+					}
+				}
+			} catch (IOException e) {
+				// connection dropped
+			} finally {
+				unsubscribeAll();
+				open.remove(this);
+			}
+		}
+
+		private boolean handle(String command, Map<String, String> headers, byte[] body) {
+			switch (command) {
+				case "CONNECT", "STOMP" -> write("CONNECTED",
+						Map.of("version", "1.2", "heart-beat", "0,0", "server", "stomp-stand-in"), new byte[0]);
+				case "SUBSCRIBE" -> {
+					String destination = headers.get("destination");
+					destinationsById.put(headers.get("id"), destination);
+					subscriptions.computeIfAbsent(destination, key -> new CopyOnWriteArrayList<>())
+							.add(new Subscription(this, headers.get("id")));
+				}
+				case "UNSUBSCRIBE" -> unsubscribe(headers.get("id"));
+				case "SEND" -> deliver(headers.get("destination"), headers, body);
+				case "DISCONNECT" -> {
+					receipt(headers);
+					return false;
+				}
+				default -> write("ERROR", Map.of("message", "Unsupported command " + command), new byte[0]);
+			}
+			receipt(headers);
+			return true;
+		}
+
+		private void receipt(Map<String, String> headers) {
+			String receipt = headers.get("receipt");
+			if (receipt != null) {
+				write("RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+			}
+		}
+
+		private void unsubscribe(String id) {
+			String destination = destinationsById.remove(id);
+			if (destination != null) {
+				List<Subscription> list = subscriptions.get(destination);
+				if (list != null) {
+					list.removeIf(subscription -> subscription.connection() == this && subscription.id().equals(id));
+				}
+			}
+		}
+
+		private void unsubscribeAll() {
+			new ArrayList<>(destinationsById.keySet()).forEach(this::unsubscribe);
+		}
+
+		// Header values are passed through still escaped, so they reach the receiver unchanged
+		synchronized void write(String command, Map<String, String> headers, byte[] body) {
+			ByteArrayOutputStream frame = new ByteArrayOutputStream(body.length + 256);
+			StringBuilder head = new StringBuilder(command).append('\n');
+			headers.forEach((name, value) -> head.append(name).append(':').append(value).append('\n'));
+			head.append("content-length:").append(body.length).append("\n\n");
+			frame.writeBytes(head.toString().getBytes(StandardCharsets.UTF_8));
+			frame.writeBytes(body);
+			frame.write(0);
+			try {
+				OutputStream out = socket.getOutputStream();
+				out.write(frame.toByteArray());
+				out.flush();
+			} catch (IOException e) {
+				close();
+			}
+		}
+
+		void close() {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	// Skips heartbeat EOLs; null at end of stream
+	private static String readCommand(InputStream in) throws IOException {
+		String line;
+		do {
+			line = readLine(in);
+			if (line == null) {
+				return null;
+			}
+		} while (line.isEmpty());
+		return line;
+	}
+
+	private static Map<String, String> readHeaders(InputStream in) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		String line;
+		while ((line = readLine(in)) != null && !line.isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				// STOMP 1.2: the first occurrence of a repeated header wins
+				headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+			}
+		}
+		if (line == null) {
+			throw new IOException("Connection closed inside a frame");
+		}
+		return headers;
+	}
+
+	private static byte[] readBody(InputStream in, String contentLength) throws IOException {
+		if (contentLength != null) {
+			byte[] body = in.readNBytes(Integer.parseInt(contentLength.trim()));
+			if (in.read() != 0) {
+				throw new IOException("Frame body not terminated by NUL");
+			}
+			return body;
+		}
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) > 0) {
+			body.write(b);
+		}
+		if (b < 0) {
+			throw new IOException("Connection closed inside a frame");
+		}
+		return body.toByteArray();
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				return null;
+			}
+			line.write(b);
+		}
+		byte[] bytes = line.toByteArray();
+		int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+}
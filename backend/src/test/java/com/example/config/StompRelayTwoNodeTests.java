@@ -0,0 +1,129 @@
+package com.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.example.OdooApplication;
+import com.example.security.JwtUtils;
+import com.example.service.UserPrincipal;
+
+/**
+ * Two application nodes in relay mode sharing a StompBrokerStandIn. A user connected to
+ * node A must receive what node B sends with convertAndSendToUser. The stand-in drops the
+ * user registry broadcast, so node B never learns about node A's sessions and the message
+ * can only arrive through the unresolved-user-destination broadcast.
+ */
+class StompRelayTwoNodeTests {
+
+	private static StompBrokerStandIn broker;
+	private static ConfigurableApplicationContext nodeA;
+	private static ConfigurableApplicationContext nodeB;
+
+	@BeforeAll
+	static void startNodes() throws Exception {
+		broker = new StompBrokerStandIn();
+		broker.drop("/topic/simp-user-registry");
+		nodeA = startNode();
+		nodeB = startNode();
+	}
+
+	@AfterAll
+	static void stopNodes() throws Exception {
+		if (nodeB != null) {
+			nodeB.close();
+		}
+		if (nodeA != null) {
+			nodeA.close();
+		}
+		broker.close();
+	}
+
+	private static ConfigurableApplicationContext startNode() {
+		return new SpringApplicationBuilder(OdooApplication.class)
+				.properties(
+						"server.port=0",
+						"app.websocket.broker.mode=relay",
+						"app.websocket.relay.host=127.0.0.1",
+						"app.websocket.relay.port=" + broker.getPort())
+				.run();
+	}
+
+	@Test
+	void sendToUserReachesSessionOnOtherNode() throws Exception {
+		String username = "relay_" + new ObjectId().toHexString();
+		UserPrincipal principal = new UserPrincipal(new ObjectId().toHexString(), username,
+				username + "@example.com", null, List.of());
+		String token = nodeA.getBean(JwtUtils.class)
+				.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+		WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+		stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+		StompHeaders connectHeaders = new StompHeaders();
+		connectHeaders.add("Authorization", "Bearer " + token);
+		int portA = ((WebServerApplicationContext) nodeA).getWebServer().getPort();
+		StompSession session = stompClient.connectAsync("ws://localhost:" + portA + "/ws/websocket",
+				new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
+				.get(10, TimeUnit.SECONDS);
+		try {
+			BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+			session.subscribe("/user/queue/messages", new StompFrameHandler() {
+				@Override
+				public Type getPayloadType(StompHeaders headers) {
+					return Map.class;
+				}
+
+				@Override
+				public void handleFrame(StompHeaders headers, Object payload) {
+					received.add((Map<?, ?>) payload);
+				}
+			});
+			awaitBrokerSubscription("/queue/messages-user", 10);
+
+			nodeB.getBean(SimpMessagingTemplate.class)
+					.convertAndSendToUser(username, "/queue/messages", Map.of("text", "hello from node B"));
+
+			Map<?, ?> payload = received.poll(10, TimeUnit.SECONDS);
+			assertNotNull(payload, "message sent on node B never reached the session on node A");
+			assertEquals("hello from node B", payload.get("text"));
+			assertTrue(broker.getSentDestinations().contains("/topic/unresolved-user-destination"),
+					"expected the send to go through the unresolved-user-destination broadcast");
+		} finally {
+			session.disconnect();
+		}
+	}
+
+	// Node A forwards the resolved subscription to the broker asynchronously
+	private static void awaitBrokerSubscription(String destinationPrefix, int timeoutSeconds) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+		while (!broker.hasSubscription(destinationPrefix)) {
+			assertTrue(System.currentTimeMillis() < deadline, "subscription never reached the broker");
+			Thread.sleep(50);
+		}
+	}
+}
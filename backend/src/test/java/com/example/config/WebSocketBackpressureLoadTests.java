@@ -0,0 +1,350 @@
+package com.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.example.security.JwtUtils;
+import com.example.service.RealtimePublisher;
+import com.example.service.UserPrincipal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Load harness for outbound backpressure: connects many STOMP clients, a share of which
+ * stop reading after subscribing (raw sockets with a tiny receive window, like a mobile
+ * client that went to the background). Fast clients get a few small messages each while,
+ * at the same time, every slow client is sent a burst larger than the per-session limit
+ * plus what the kernel socket buffers can absorb. Fast clients must receive every
+ * message, slow ones must be closed, and the buffered bytes on the node must stay within
+ * the per-session limit for slow sessions plus what was sent to the fast ones.
+ *
+ * Not part of the normal build; run with
+ *   mvn test -Dtest=WebSocketBackpressureLoadTests -Dloadtest=true
+ * and optionally -Dloadtest.clients=10000 -Dloadtest.slow-fraction=0.1 -Dloadtest.rounds=20.
+ * Needs MongoDB and a file descriptor limit of at least twice the client count (ulimit -n).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"app.websocket.outbound.send-time-limit-ms=2000",
+		"app.websocket.outbound.buffer-size-limit-bytes=65536",
+		"app.websocket.outbound.stall-check-interval-ms=250",
+		"app.websocket.outbound.overflow-policy=close"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class WebSocketBackpressureLoadTests {
+	private static final Logger logger = LoggerFactory.getLogger(WebSocketBackpressureLoadTests.class);
+
+	private static final int CLIENTS = Integer.getInteger("loadtest.clients", 10_000);
+	private static final double SLOW_FRACTION = Double.parseDouble(System.getProperty("loadtest.slow-fraction", "0.1"));
+	private static final int ROUNDS = Integer.getInteger("loadtest.rounds", 20);
+	private static final int PAYLOAD_CHARS = 1024;
+	private static final int SLOW_PAYLOAD_CHARS = 16 * 1024;
+	// Upper bound for the STOMP headers and JSON wrapping around a payload
+	private static final int FRAME_OVERHEAD = 1024;
+	private static final int CONNECT_PARALLELISM = 64;
+	private static final int SLOW_RECEIVE_BUFFER = 4096;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private RealtimePublisher realtimePublisher;
+
+	@Autowired
+	private SimpUserRegistry userRegistry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private OutboundSessionBuffers outboundSessionBuffers;
+
+	private final List<StompSession> fastSessions = new ArrayList<>();
+	private final List<Socket> slowSockets = new ArrayList<>();
+
+	@AfterEach
+	void disconnect() {
+		fastSessions.forEach(session -> {
+			if (session.isConnected()) {
+				session.disconnect();
+			}
+		});
+		slowSockets.forEach(socket -> {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already gone
+			}
+		});
+	}
+
+	@Test
+	void slowConsumersAreShedWithoutDelayingOthers() throws Exception {
+		int slowCount = (int) Math.round(CLIENTS * SLOW_FRACTION);
+		int fastCount = CLIENTS - slowCount;
+
+		WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+		stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+		CountDownLatch fastDone = new CountDownLatch(fastCount);
+		AtomicInteger fastReceived = new AtomicInteger();
+
+		List<String> usernames = new ArrayList<>(CLIENTS);
+		ExecutorService connectors = Executors.newFixedThreadPool(CONNECT_PARALLELISM);
+		try {
+			List<Future<?>> connects = new ArrayList<>(CLIENTS);
+			for (int i = 0; i < CLIENTS; i++) {
+				String username = "load_" + i + "_" + new ObjectId().toHexString();
+				String token = tokenFor(username);
+				usernames.add(username);
+				boolean slow = i < slowCount;
+				connects.add(connectors.submit(() -> {
+					if (slow) {
+						Socket socket = connectSlow(token);
+						synchronized (slowSockets) {
+							slowSockets.add(socket);
+						}
+					} else {
+						StompSession session = connectFast(stompClient, token, fastDone, fastReceived);
+						synchronized (fastSessions) {
+							fastSessions.add(session);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> connect : connects) {
+				connect.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			connectors.shutdownNow();
+		}
+		awaitSubscriptions(CLIENTS, 120);
+
+		// Sample what the node holds in session buffers while the burst is delivered
+		AtomicLong maxBuffered = new AtomicLong();
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		sampler.scheduleAtFixedRate(() -> maxBuffered.accumulateAndGet(
+				(long) meterRegistry.get("websocket.session.buffered.bytes").gauge().value(), Math::max),
+				0, 50, TimeUnit.MILLISECONDS);
+
+		// Enough per slow client to overflow its session buffer even after the node's send
+		// buffer and the client's receive buffer have taken all they can
+		long slowBurstBytes = 2 * (outboundSessionBuffers.getBufferSizeLimit() + maxSocketSendBuffer() + SLOW_RECEIVE_BUFFER);
+		int slowRounds = (int) (slowBurstBytes / SLOW_PAYLOAD_CHARS) + 1;
+		List<String> slowUsers = usernames.subList(0, slowCount);
+		List<String> fastUsers = usernames.subList(slowCount, CLIENTS);
+
+		ExecutorService slowPublisher = Executors.newSingleThreadExecutor();
+		long start = System.nanoTime();
+		try {
+			Future<?> slowBurst = slowPublisher.submit(() -> {
+				String slowBody = "x".repeat(SLOW_PAYLOAD_CHARS);
+				for (int round = 0; round < slowRounds; round++) {
+					for (String username : slowUsers) {
+						realtimePublisher.sendToUser(username, "/queue/messages", Map.of("seq", round, "body", slowBody));
+					}
+				}
+			});
+			String body = "x".repeat(PAYLOAD_CHARS);
+			for (int round = 0; round < ROUNDS; round++) {
+				for (String username : fastUsers) {
+					realtimePublisher.sendToUser(username, "/queue/messages", Map.of("seq", round, "body", body));
+				}
+			}
+			assertTrue(fastDone.await(120, TimeUnit.SECONDS),
+					"fast clients still waiting: " + fastDone.getCount() + " of " + fastCount);
+			slowBurst.get(300, TimeUnit.SECONDS);
+			awaitClosed(slowCount, 60);
+		} finally {
+			slowPublisher.shutdownNow();
+			sampler.shutdownNow();
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		double closed = closedSessions();
+		logger.info("clients={} slow={} rounds={} slow burst={} bytes, delivered={} in {} ms, closed={}, max buffered={} bytes",
+				CLIENTS, slowCount, ROUNDS, slowBurstBytes, fastReceived.get(), elapsedMs, (long) closed, maxBuffered.get());
+
+		assertEquals((long) fastCount * ROUNDS, fastReceived.get());
+		assertTrue(closed >= slowCount, "expected every stalled client to be closed, closed " + closed);
+		// A slow session is closed as soon as it goes over the limit; a fast one can at most
+		// hold everything that was sent to it
+		long bound = (long) slowCount * (outboundSessionBuffers.getBufferSizeLimit() + SLOW_PAYLOAD_CHARS + FRAME_OVERHEAD)
+				+ (long) fastCount * ROUNDS * (PAYLOAD_CHARS + FRAME_OVERHEAD);
+		assertTrue(maxBuffered.get() <= bound,
+				"buffered bytes " + maxBuffered.get() + " exceeded the bound of " + bound);
+	}
+
+	private double closedSessions() {
+		return meterRegistry.get("websocket.session.closed").counters().stream()
+				.mapToDouble(counter -> counter.count())
+				.sum();
+	}
+
+	// The stall sweep runs on its own schedule, so closes can trail the end of the burst
+	private void awaitClosed(int expected, int timeoutSeconds) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+		while (closedSessions() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+	}
+
+	// Largest send buffer the kernel may grow a socket to; 4 MB is the Linux default
+	private static long maxSocketSendBuffer() {
+		try {
+			String[] wmem = Files.readString(Path.of("/proc/sys/net/ipv4/tcp_wmem")).trim().split("\\s+");
+			return Long.parseLong(wmem[2]);
+		} catch (IOException | RuntimeException e) {
+			return 4L * 1024 * 1024;
+		}
+	}
+
+	private String tokenFor(String username) {
+		UserPrincipal principal = new UserPrincipal(new ObjectId().toHexString(), username,
+				username + "@example.com", null, List.of());
+		return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+	}
+
+	private StompSession connectFast(WebSocketStompClient stompClient, String token,
+									 CountDownLatch done, AtomicInteger received) throws Exception {
+		StompHeaders connectHeaders = new StompHeaders();
+		connectHeaders.add("Authorization", "Bearer " + token);
+		StompSession session = stompClient.connectAsync(url(), new WebSocketHttpHeaders(), connectHeaders,
+				new StompSessionHandlerAdapter() {}).get(30, TimeUnit.SECONDS);
+		AtomicInteger mine = new AtomicInteger();
+		session.subscribe("/user/queue/messages", new StompFrameHandler() {
+			@Override
+			public Type getPayloadType(StompHeaders headers) {
+				return Map.class;
+			}
+
+			@Override
+			public void handleFrame(StompHeaders headers, Object payload) {
+				received.incrementAndGet();
+				if (mine.incrementAndGet() == ROUNDS) {
+					done.countDown();
+				}
+			}
+		});
+		return session;
+	}
+
+	// Upgrades, connects and subscribes over a raw socket, then never reads again
+	private Socket connectSlow(String token) throws IOException {
+		Socket socket = new Socket();
+		socket.setReceiveBufferSize(SLOW_RECEIVE_BUFFER);
+		socket.connect(new InetSocketAddress("localhost", port), 30_000);
+		OutputStream out = socket.getOutputStream();
+		byte[] key = new byte[16];
+		new SecureRandom().nextBytes(key);
+		out.write(("GET /ws/websocket HTTP/1.1\r\n"
+				+ "Host: localhost:" + port + "\r\n"
+				+ "Upgrade: websocket\r\n"
+				+ "Connection: Upgrade\r\n"
+				+ "Sec-WebSocket-Key: " + Base64.getEncoder().encodeToString(key) + "\r\n"
+				+ "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+		readHandshakeResponse(socket.getInputStream());
+
+		writeTextFrame(out, "CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n"
+				+ "Authorization:Bearer " + token + "\n\n\0");
+		writeTextFrame(out, "SUBSCRIBE\nid:sub-0\ndestination:/user/queue/messages\n\n\0");
+		return socket;
+	}
+
+	private static void readHandshakeResponse(InputStream in) throws IOException {
+		int matched = 0;
+		byte[] terminator = {'\r', '\n', '\r', '\n'};
+		while (matched < terminator.length) {
+			int b = in.read();
+			if (b < 0) {
+				throw new IOException("Connection closed during WebSocket handshake");
+			}
+			matched = b == terminator[matched] ? matched + 1 : (b == '\r' ? 1 : 0);
+		}
+	}
+
+	// Client frames must be masked (RFC 6455 section 5.3)
+	private static void writeTextFrame(OutputStream out, String text) throws IOException {
+		byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+		byte[] mask = new byte[4];
+		new SecureRandom().nextBytes(mask);
+		out.write(0x81);
+		if (payload.length < 126) {
+			out.write(0x80 | payload.length);
+		} else {
+			out.write(0x80 | 126);
+			out.write(payload.length >>> 8);
+			out.write(payload.length & 0xFF);
+		}
+		out.write(mask);
+		for (int i = 0; i < payload.length; i++) {
+			out.write(payload[i] ^ mask[i % 4]);
+		}
+		out.flush();
+	}
+
+	// Subscribing is asynchronous; publishing earlier would count messages nobody could receive
+	private void awaitSubscriptions(int expected, int timeoutSeconds) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+		int subscribed = 0;
+		while (System.currentTimeMillis() < deadline) {
+			subscribed = userRegistry.findSubscriptions(
+					subscription -> "/user/queue/messages".equals(subscription.getDestination())).size();
+			if (subscribed >= expected) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		assertEquals(expected, subscribed, "not every client subscribed");
+	}
+
+	private String url() {
+		return "ws://localhost:" + port + "/ws/websocket";
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.model.ProfileStats;
+import com.example.model.User;
+
+@SpringBootTest
+class UserStatsConcurrencyTests {
+
+	private static final int THREADS = 8;
+	private static final int UPDATES_PER_THREAD = 250;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User user;
+
+	@BeforeEach
+	void createUser() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		user = new User();
+		user.setName("Concurrency " + suffix);
+		user.setUsername("concurrency_" + suffix);
+		user.setEmail("concurrency_" + suffix + "@example.com");
+		user.setPassword("not-a-real-hash");
+		user = userRepository.save(user);
+	}
+
+	@AfterEach
+	void deleteUser() {
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void concurrentStatUpdatesAreNotLost() throws Exception {
+		runConcurrently(() -> userRepository.incrementProfileViews(user.getId(), 1));
+		runConcurrently(() -> userRepository.incrementCompletedSwaps(user.getId()));
+		runConcurrently(() -> userRepository.recordRating(user.getId(), 4.0));
+
+		int expected = THREADS * UPDATES_PER_THREAD;
+		ProfileStats stats = userRepository.findById(user.getId()).orElseThrow().getStats();
+		assertEquals(expected, stats.getProfileViews());
+		assertEquals(expected, stats.getTotalSwaps());
+		assertEquals(expected, stats.getCompletedSwaps());
+		assertEquals(expected, stats.getTotalRatings());
+		assertEquals(4.0, stats.getAverageRating());
+	}
+
+	@Test
+	void fieldUpdatesDoNotOverwriteConcurrentIncrements() throws Exception {
+		User profile = new User();
+		profile.setName("Renamed");
+		profile.setLocation("Elsewhere");
+
+		// Half the threads increment, the other half rewrite the profile or ban status
+		runConcurrently(
+				() -> userRepository.incrementProfileViews(user.getId(), 1),
+				() -> userRepository.updateProfileFields(user.getId(), profile) != null,
+				() -> userRepository.incrementCompletedSwaps(user.getId()),
+				() -> userRepository.setBanned(user.getId(), true) != null);
+
+		int expected = THREADS / 4 * UPDATES_PER_THREAD;
+		User updated = userRepository.findById(user.getId()).orElseThrow();
+		assertEquals(expected, updated.getStats().getProfileViews());
+		assertEquals(expected, updated.getStats().getCompletedSwaps());
+		assertEquals("Renamed", updated.getName());
+		assertEquals("Elsewhere", updated.getLocation());
+		assertTrue(updated.isBanned());
+	}
+
+	@Test
+	void updatesReportMissingUser() {
+		assertFalse(userRepository.incrementProfileViews("000000000000000000000000", 1));
+	}
+
+	// Thread t repeatedly runs updates[t % updates.length]
+	private void runConcurrently(Callable<?>... updates) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				Callable<?> update = updates[t % updates.length];
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+						update.call();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import {
   MessageSquare,
   Send,
@@ -23,6 +23,9 @@ const ChatPage = () => {
   const [swapRequests, setSwapRequests] = useState([]);
   const [selectedSwap, setSelectedSwap] = useState(null);
   const [messages, setMessages] = useState([]);
+  const [olderCursor, setOlderCursor] = useState(null);
+  const newestCursorRef = useRef(null);
+  const activeSwapIdRef = useRef(null);
   const [newMessage, setNewMessage] = useState('');
   const [loading, setLoading] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
@@ -88,32 +91,90 @@ const ChatPage = () => {
     }
   };
 
-  // Fetch messages for a swap
+  // Fetch one page of a swap conversation; query is '', '?before=...' or '?after=...'
+  const fetchMessagePage = async (swapId, query) => {
+    const token = getAuthToken();
+    const response = await fetch(`${API_BASE}/chat/swap/${swapId}${query}`, {
+      headers: {
+        'Authorization': `Bearer ${token}`,
+        'Content-Type': 'application/json',
+        'Cache-Control': 'no-cache',
+        'Pragma': 'no-cache'
+      }
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch messages');
+    }
+    return {
+      page: await response.json(),
+      nextCursor: response.headers.get('X-Next-Cursor'),
+      newestCursor: response.headers.get('X-Newest-Cursor')
+    };
+  };
+
+  // Load the newest page of a swap; older pages are loaded on request
   const fetchMessages = async (swapId) => {
     if (!swapId) return;
     
     try {
-      const token = getAuthToken();
-      const response = await fetch(`${API_BASE}/chat/swap/${swapId}`, {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-          'Content-Type': 'application/json',
-          'Cache-Control': 'no-cache',
-          'Pragma': 'no-cache'
-        }
-      });
+      activeSwapIdRef.current = swapId;
+      newestCursorRef.current = null;
+      setOlderCursor(null);
+      const { page, nextCursor, newestCursor } = await fetchMessagePage(swapId, '');
+      if (activeSwapIdRef.current !== swapId) return;
+      setMessages(page);
+      setOlderCursor(nextCursor);
+      newestCursorRef.current = newestCursor;
+    } catch (error) {
+      toast.error('Error fetching messages: ' + error.message);
+    }
+  };
 
-      if (response.ok) {
-        const messages = await response.json();
-        setMessages(messages);
-      } else {
-        toast.error('Failed to fetch messages');
+  // Fetch only what arrived after the newest message already shown
+  const fetchNewMessages = async (swapId) => {
+    if (!swapId) return;
+    if (!newestCursorRef.current) {
+      return fetchMessages(swapId);
+    }
+
+    try {
+      let cursor = newestCursorRef.current;
+      let arrived = [];
+      while (cursor) {
+        const { page, nextCursor, newestCursor } = await fetchMessagePage(swapId, `?after=${encodeURIComponent(cursor)}`);
+        if (activeSwapIdRef.current !== swapId) return;
+        arrived = [...arrived, ...page];
+        if (newestCursor) {
+          newestCursorRef.current = newestCursor;
+        }
+        cursor = nextCursor;
+      }
+      if (arrived.length > 0) {
+        setMessages(prev => {
+          const known = new Set(prev.map(message => message.id));
+          return [...prev, ...arrived.filter(message => !known.has(message.id))];
+        });
       }
     } catch (error) {
       toast.error('Error fetching messages: ' + error.message);
     }
   };
 
+  // User-triggered: prepend the page before the oldest message shown
+  const fetchOlderMessages = async () => {
+    if (!selectedSwap || !olderCursor) return;
+    const swapId = selectedSwap.id;
+
+    try {
+      const { page, nextCursor } = await fetchMessagePage(swapId, `?before=${encodeURIComponent(olderCursor)}`);
+      if (activeSwapIdRef.current !== swapId) return;
+      setMessages(prev => [...page, ...prev]);
+      setOlderCursor(nextCursor);
+    } catch (error) {
+      toast.error('Error fetching messages: ' + error.message);
+    }
+  };
+
   // Send a message
   const sendMessage = async () => {
     if (!newMessage.trim() || !selectedSwap) return;
@@ -149,8 +210,8 @@ const ChatPage = () => {
         const result = await response.json();
         if (result.success) {
           setNewMessage('');
-          // Refresh messages
-          fetchMessages(selectedSwap.id);
+          // Pick up the sent message and anything else that arrived meanwhile
+          fetchNewMessages(selectedSwap.id);
         } else {
           toast.error(result.message || 'Failed to send message');
         }
@@ -166,7 +227,6 @@ const ChatPage = () => {
   // Handle swap selection
   const handleSwapSelect = (swap) => {
     setSelectedSwap(swap);
-    fetchMessages(swap.id);
   };
 
   // Get other user in the swap
@@ -218,7 +278,7 @@ const ChatPage = () => {
   useEffect(() => {
     const interval = setInterval(() => {
       if (selectedSwap) {
-        fetchMessages(selectedSwap.id);
+        fetchNewMessages(selectedSwap.id);
       }
     }, 30000);
 
@@ -373,6 +433,13 @@ const ChatPage = () => {
             {/* Messages */}
             <ScrollArea className="flex-1 p-4">
               <div className="space-y-4">
+                {olderCursor && (
+                  <div className="text-center">
+                    <Button size="sm" variant="outline" onClick={fetchOlderMessages}>
+                      Load older messages
+                    </Button>
+                  </div>
+                )}
                 {messages.length === 0 ? (
                   <div className="text-center py-8">
                     <MessageSquare className="h-12 w-12 text-gray-400 mx-auto mb-4" />